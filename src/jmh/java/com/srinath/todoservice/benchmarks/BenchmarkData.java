@@ -0,0 +1,37 @@
+package com.srinath.todoservice.benchmarks;
+
+import com.srinath.todoservice.entities.Todo;
+import com.srinath.todoservice.enums.TodoStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Deterministic todo data shared by the benchmarks. Roughly a third of the todos are in each status.
+ */
+final class BenchmarkData {
+
+    static final LocalDateTime BASE_TIME = LocalDateTime.of(2030, 1, 1, 9, 0);
+
+    private BenchmarkData() {
+    }
+
+    static List<Todo> todos(int size) {
+        List<Todo> todos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            TodoStatus status = TodoStatus.values()[i % TodoStatus.values().length];
+            todos.add(Todo.builder()
+                    .id(new UUID(i, i))
+                    .description("Benchmark todo number " + i)
+                    .status(status)
+                    .createdAt(BASE_TIME.minusDays(1))
+                    .dueDate(BASE_TIME.plusMinutes(i))
+                    .completedAt(status == TodoStatus.DONE ? BASE_TIME : null)
+                    .version(0L)
+                    .build());
+        }
+        return todos;
+    }
+}
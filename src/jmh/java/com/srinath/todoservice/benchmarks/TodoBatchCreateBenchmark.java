@@ -0,0 +1,78 @@
+package com.srinath.todoservice.benchmarks;
+
+import com.srinath.todoservice.TodoserviceApplication;
+import com.srinath.todoservice.dtos.BatchCreateResponse;
+import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.repositories.TodoRepository;
+import com.srinath.todoservice.requests.CreateTodoRequest;
+import com.srinath.todoservice.services.TodoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating {@code size} todos one at a time, each in its own transaction as the single create endpoint does,
+ * against one call to the batch create, which saves them in one transaction with JDBC batched inserts.
+ * Both go through {@link TodoService} against embedded H2, so the event listeners run as in the service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TodoBatchCreateBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+    private TodoService todoService;
+    private TodoRepository todoRepository;
+    private List<CreateTodoRequest> requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(TodoserviceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:batch-benchmark-" + size,
+                        "todo.past-due-timer.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        todoService = context.getBean(TodoService.class);
+        todoRepository = context.getBean(TodoRepository.class);
+        LocalDateTime dueDate = LocalDateTime.now().plusYears(10);
+        requests = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            requests.add(new CreateTodoRequest("Benchmark todo " + i, dueDate));
+        }
+    }
+
+    // Keeps the table, and so index depth, the same for every iteration
+    @TearDown(Level.Iteration)
+    public void clear() {
+        todoRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TodoDetails> createOneByOne() {
+        List<TodoDetails> created = new ArrayList<>(size);
+        for (CreateTodoRequest request : requests) {
+            created.add(todoService.createTodoItem(request));
+        }
+        return created;
+    }
+
+    @Benchmark
+    public BatchCreateResponse createBatch() {
+        return todoService.createTodoItems(requests);
+    }
+}
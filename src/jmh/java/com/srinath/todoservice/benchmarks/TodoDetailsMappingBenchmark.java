@@ -0,0 +1,32 @@
+package com.srinath.todoservice.benchmarks;
+
+import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.entities.Todo;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of mapping entities to {@link TodoDetails}, the step the write paths still take.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TodoDetailsMappingBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int size;
+
+    private List<Todo> todos;
+
+    @Setup
+    public void setUp() {
+        todos = BenchmarkData.todos(size);
+    }
+
+    @Benchmark
+    public List<TodoDetails> fromEntity() {
+        return todos.stream().map(TodoDetails::fromEntity).toList();
+    }
+}
@@ -0,0 +1,60 @@
+package com.srinath.todoservice.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.srinath.todoservice.configs.SmileConfig;
+import com.srinath.todoservice.dtos.TodoDetails;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the list endpoint payload as JSON and as Smile, configured like the application's
+ * ObjectMapper and Smile converter. The payload size of each format is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TodoDetailsSerializationBenchmark {
+
+    private static final TypeReference<List<TodoDetails>> TODO_LIST = new TypeReference<>() {
+    };
+
+    @Param({"100", "10000", "100000"})
+    private int size;
+
+    @Param({"json", "smile"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private List<TodoDetails> todos;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (format.equals("smile")) {
+            builder.factory(SmileConfig.smileFactory());
+        }
+        objectMapper = builder.build();
+        todos = BenchmarkData.todos(size).stream().map(TodoDetails::fromEntity).toList();
+        payload = objectMapper.writeValueAsBytes(todos);
+        System.out.printf("%n%s payload for %d todos: %d bytes (%.1f per todo)%n", format, size, payload.length,
+                (double) payload.length / size);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(todos);
+    }
+
+    @Benchmark
+    public List<TodoDetails> deserialize() throws IOException {
+        return objectMapper.readValue(payload, TODO_LIST);
+    }
+}
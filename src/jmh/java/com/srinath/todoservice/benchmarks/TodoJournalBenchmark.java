@@ -0,0 +1,72 @@
+package com.srinath.todoservice.benchmarks;
+
+import com.srinath.todoservice.configs.TodoJournalProperties;
+import com.srinath.todoservice.enums.FsyncPolicy;
+import com.srinath.todoservice.enums.TodoStatus;
+import com.srinath.todoservice.repositories.FileTodoJournal;
+import com.srinath.todoservice.repositories.InMemoryTodoStore;
+import com.srinath.todoservice.repositories.InMemoryTodoStore.StoredTodo;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write throughput of the in-memory store with the file journal under each fsync policy. Run with
+ * {@code -t 1} and {@code -t 16} to see how group commit amortizes forces across concurrent writers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TodoJournalBenchmark {
+
+    private static final int TODOS = 10_000;
+
+    @Param({"ALWAYS", "INTERVAL", "NEVER"})
+    private FsyncPolicy fsync;
+
+    private Path directory;
+    private FileTodoJournal journal;
+    private InMemoryTodoStore store;
+    private UUID[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("todo-journal-benchmark");
+        journal = new FileTodoJournal(new TodoJournalProperties(directory, DataSize.ofMegabytes(64), fsync,
+                Duration.ofMillis(100)));
+        store = new InMemoryTodoStore(journal);
+        ids = new UUID[TODOS];
+        LocalDateTime dueDate = LocalDateTime.now().plusYears(1);
+        for (int i = 0; i < TODOS; i++) {
+            ids[i] = store.insert(new StoredTodo(UUID.randomUUID(), "Benchmark todo " + i, TodoStatus.NOT_DONE,
+                    LocalDateTime.now(), dueDate, null, 0L)).id();
+        }
+    }
+
+    // Keeps the log from growing across iterations
+    @Setup(Level.Iteration)
+    public void compact() {
+        journal.compact(store::forEach);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public StoredTodo updateDescription() {
+        UUID id = ids[ThreadLocalRandom.current().nextInt(TODOS)];
+        return store.update(id, todo -> todo.withDescription("Updated benchmark todo")).orElseThrow().after();
+    }
+}
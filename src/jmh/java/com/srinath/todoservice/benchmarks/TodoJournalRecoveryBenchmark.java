@@ -0,0 +1,78 @@
+package com.srinath.todoservice.benchmarks;
+
+import com.srinath.todoservice.configs.TodoJournalProperties;
+import com.srinath.todoservice.enums.FsyncPolicy;
+import com.srinath.todoservice.enums.TodoStatus;
+import com.srinath.todoservice.repositories.FileTodoJournal;
+import com.srinath.todoservice.repositories.InMemoryTodoStore;
+import com.srinath.todoservice.repositories.InMemoryTodoStore.StoredTodo;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup recovery time of the in-memory store from a compacted snapshot versus replaying the same todos
+ * from the log, where each todo was written once and then marked done.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class TodoJournalRecoveryBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int todos;
+
+    @Param({"SNAPSHOT", "LOG"})
+    private String source;
+
+    private Path directory;
+    private FileTodoJournal journal;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("todo-journal-recovery-benchmark");
+        FileTodoJournal writer = open();
+        InMemoryTodoStore store = new InMemoryTodoStore(writer);
+        LocalDateTime dueDate = LocalDateTime.now().plusYears(1);
+        for (int i = 0; i < todos; i++) {
+            UUID id = store.insert(new StoredTodo(UUID.randomUUID(), "Benchmark todo " + i, TodoStatus.NOT_DONE,
+                    LocalDateTime.now(), dueDate, null, 0L)).id();
+            store.update(id, todo -> todo.withStatus(TodoStatus.DONE, LocalDateTime.now()));
+        }
+        if (source.equals("SNAPSHOT")) {
+            writer.compact(store::forEach);
+        }
+        writer.close();
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeJournal() {
+        journal.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public InMemoryTodoStore recover() {
+        journal = open();
+        return new InMemoryTodoStore(journal);
+    }
+
+    private FileTodoJournal open() {
+        return new FileTodoJournal(new TodoJournalProperties(directory, DataSize.ofMegabytes(64),
+                FsyncPolicy.NEVER, Duration.ofMillis(100)));
+    }
+}
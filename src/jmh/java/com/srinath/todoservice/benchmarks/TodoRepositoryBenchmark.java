@@ -0,0 +1,119 @@
+package com.srinath.todoservice.benchmarks;
+
+import com.srinath.todoservice.TodoserviceApplication;
+import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.dtos.TodoDue;
+import com.srinath.todoservice.entities.Todo;
+import com.srinath.todoservice.enums.TodoStatus;
+import com.srinath.todoservice.repositories.TodoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository queries against embedded H2 at several table sizes. The entity variants load managed
+ * {@link Todo}s and map them, the way reads worked before the DTO projections, for comparison.
+ * <p>
+ * Run with {@code -prof gc} to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TodoRepositoryBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private TodoRepository todoRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+    private UUID sampleId;
+    private TodoDetails deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(TodoserviceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmark-" + rows,
+                        "todo.past-due-timer.enabled=false",
+                        // findDetailsById is cached; measure the database read
+                        "spring.cache.type=none",
+                        "logging.level.root=WARN")
+                .run();
+        todoRepository = context.getBean(TodoRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Object[]> values = BenchmarkData.todos(rows).stream().map(todo -> new Object[]{
+                todo.getId(), todo.getDescription(), todo.getStatus().ordinal(),
+                Timestamp.valueOf(todo.getCreatedAt()), Timestamp.valueOf(todo.getDueDate()),
+                todo.getCompletedAt() == null ? null : Timestamp.valueOf(todo.getCompletedAt()), 0L}).toList();
+        jdbcTemplate.batchUpdate("insert into todo (id, description, status, created_at, due_date, completed_at, version) "
+                + "values (?, ?, ?, ?, ?, ?, ?)", values);
+        jdbcTemplate.execute("ANALYZE");
+
+        sampleId = new UUID(rows / 2, rows / 2);
+        List<TodoDetails> notDone = todoRepository.findAllDetailsByStatus(TodoStatus.NOT_DONE);
+        deepCursor = notDone.get(notDone.size() - PAGE_SIZE - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TodoDetails> firstPageProjection() {
+        return readOnlyTransaction.execute(status ->
+                todoRepository.findDetailsByStatus(TodoStatus.NOT_DONE, Limit.of(PAGE_SIZE + 1)));
+    }
+
+    @Benchmark
+    public List<TodoDetails> firstPageEntity() {
+        return readOnlyTransaction.execute(status -> entityManager
+                .createQuery("select t from Todo t where t.status = :status order by t.dueDate asc, t.id asc", Todo.class)
+                .setParameter("status", TodoStatus.NOT_DONE)
+                .setMaxResults(PAGE_SIZE + 1)
+                .getResultList().stream().map(TodoDetails::fromEntity).toList());
+    }
+
+    @Benchmark
+    public List<TodoDetails> deepPageProjection() {
+        return readOnlyTransaction.execute(status -> todoRepository.findDetailsByStatusAfter(TodoStatus.NOT_DONE,
+                deepCursor.dueDate(), deepCursor.id(), Limit.of(PAGE_SIZE + 1)));
+    }
+
+    @Benchmark
+    public TodoDetails byIdProjection() {
+        return readOnlyTransaction.execute(status -> todoRepository.findDetailsById(sampleId).orElseThrow());
+    }
+
+    @Benchmark
+    public TodoDetails byIdEntity() {
+        return readOnlyTransaction.execute(status -> TodoDetails.fromEntity(entityManager.find(Todo.class, sampleId)));
+    }
+
+    @Benchmark
+    public List<TodoDue> pastDueSweepChunk() {
+        return todoRepository.findDueByStatusAndDueDateBefore(TodoStatus.NOT_DONE,
+                BenchmarkData.BASE_TIME.plusMinutes(rows), Limit.of(500));
+    }
+}
@@ -0,0 +1,53 @@
+package com.srinath.todoservice.benchmarks;
+
+import com.srinath.todoservice.repositories.TodoSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency of {@link TodoSearchIndex} for one page of results. Descriptions draw words from a
+ * skewed vocabulary, so the first words are in a large share of todos and the last in very few.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TodoSearchBenchmark {
+
+    private static final int VOCABULARY_SIZE = 20_000;
+
+    @Param({"100000", "1000000"})
+    private int size;
+
+    // Rare word, common word, common word with a rare one, and a short prefix
+    @Param({"word19999", "word1", "word1 word15000", "word12"})
+    private String query;
+
+    private TodoSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new TodoSearchIndex(2_000);
+        Random random = new Random(42);
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            description.setLength(0);
+            int words = 3 + random.nextInt(6);
+            for (int w = 0; w < words; w++) {
+                // Squaring a uniform draw skews it towards the start of the vocabulary
+                double skewed = random.nextDouble();
+                description.append("word").append((int) (skewed * skewed * VOCABULARY_SIZE)).append(' ');
+            }
+            // Random ids like real ones; new UUID(i, i) would give every id the same hash code
+            index.index(new UUID(random.nextLong(), random.nextLong()), description.toString(), 0);
+        }
+    }
+
+    @Benchmark
+    public List<UUID> search() {
+        return index.search(query, 0, 21);
+    }
+}
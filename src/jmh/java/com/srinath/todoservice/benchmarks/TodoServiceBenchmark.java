@@ -0,0 +1,134 @@
+package com.srinath.todoservice.benchmarks;
+
+import com.srinath.todoservice.configs.PastDueProperties;
+import com.srinath.todoservice.configs.PastDueSweepProperties;
+import com.srinath.todoservice.configs.TodoSyncProperties;
+import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.dtos.UpdateTodoStatusesResponse;
+import com.srinath.todoservice.entities.Todo;
+import com.srinath.todoservice.enums.PastDueMode;
+import com.srinath.todoservice.enums.TodoStatus;
+import com.srinath.todoservice.exceptions.InvalidParameterException;
+import com.srinath.todoservice.repositories.ArchivedTodoRepository;
+import com.srinath.todoservice.repositories.TodoRepository;
+import com.srinath.todoservice.requests.CreateTodoRequest;
+import com.srinath.todoservice.services.impl.ChangeSeqWatermark;
+import com.srinath.todoservice.services.impl.TodoServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Validation and status transition logic in {@link TodoServiceImpl}, with the repository replaced by
+ * a map so only service code is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TodoServiceBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int batchSize;
+
+    private TodoServiceImpl todoService;
+    private Map<UUID, Todo> todos;
+    private List<UUID> batchIds;
+    private UUID todoId;
+    private CreateTodoRequest validRequest;
+    private CreateTodoRequest invalidRequest;
+    private TodoStatus nextBatchStatus = TodoStatus.DONE;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime dueDate = LocalDateTime.now().plusYears(10);
+        todos = BenchmarkData.todos(batchSize).stream()
+                .peek(todo -> {
+                    todo.setStatus(TodoStatus.NOT_DONE);
+                    todo.setCompletedAt(null);
+                    todo.setDueDate(dueDate);
+                })
+                .collect(Collectors.toMap(Todo::getId, Function.identity()));
+        batchIds = List.copyOf(todos.keySet());
+        todoId = batchIds.get(0);
+        TodoRepository todoRepository = inMemoryRepository(todos);
+        ArchivedTodoRepository archivedTodoRepository = emptyArchive();
+        todoService = new TodoServiceImpl(todoRepository, archivedTodoRepository,
+                new PastDueSweepProperties(500, Duration.ofSeconds(5), Duration.ofMinutes(1)),
+                new PastDueProperties(PastDueMode.STORED), event -> { },
+                new ChangeSeqWatermark(todoRepository, archivedTodoRepository,
+                        new TodoSyncProperties(Duration.ZERO, Duration.ofSeconds(1))));
+        validRequest = new CreateTodoRequest("Benchmark todo", dueDate);
+        invalidRequest = new CreateTodoRequest("   ", dueDate);
+    }
+
+    @Benchmark
+    public TodoDetails createTodoItem() {
+        return todoService.createTodoItem(validRequest);
+    }
+
+    @Benchmark
+    public Object createTodoItemRejected() {
+        try {
+            return todoService.createTodoItem(invalidRequest);
+        } catch (InvalidParameterException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public TodoDetails markDoneAndNotDone() {
+        todoService.markTodoAsDone(todoId);
+        return todoService.markTodoAsNotDone(todoId);
+    }
+
+    @Benchmark
+    public UpdateTodoStatusesResponse updateTodoStatuses() {
+        UpdateTodoStatusesResponse response = todoService.updateTodoStatuses(batchIds, nextBatchStatus);
+        nextBatchStatus = nextBatchStatus == TodoStatus.DONE ? TodoStatus.NOT_DONE : TodoStatus.DONE;
+        return response;
+    }
+
+    @SuppressWarnings("unchecked")
+    // Every benchmarked todo is in the active table, so the archive is never asked
+    private static ArchivedTodoRepository emptyArchive() {
+        return (ArchivedTodoRepository) Proxy.newProxyInstance(ArchivedTodoRepository.class.getClassLoader(),
+                new Class<?>[]{ArchivedTodoRepository.class}, (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static TodoRepository inMemoryRepository(Map<UUID, Todo> todos) {
+        return (TodoRepository) Proxy.newProxyInstance(TodoRepository.class.getClassLoader(),
+                new Class<?>[]{TodoRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.ofNullable(todos.get((UUID) args[0]));
+                    case "findAllById" -> ((Collection<UUID>) args[0]).stream().map(todos::get)
+                            .filter(Objects::nonNull).toList();
+                    case "findDetailsByIdIn" -> ((Collection<UUID>) args[0]).stream().map(todos::get)
+                            .filter(Objects::nonNull).map(TodoDetails::fromEntity).toList();
+                    case "save" -> {
+                        Todo todo = (Todo) args[0];
+                        if (todo.getId() == null) {
+                            todo.setId(UUID.randomUUID());
+                        }
+                        yield todo;
+                    }
+                    case "updateStatusOfTodosNotDue" -> {
+                        Collection<UUID> ids = (Collection<UUID>) args[0];
+                        ids.forEach(id -> {
+                            Todo todo = todos.get(id);
+                            todo.setStatus((TodoStatus) args[2]);
+                            todo.setCompletedAt((LocalDateTime) args[3]);
+                            todo.setVersion(todo.getVersion() + 1);
+                        });
+                        yield ids.size();
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
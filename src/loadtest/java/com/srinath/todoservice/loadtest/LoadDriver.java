@@ -0,0 +1,116 @@
+package com.srinath.todoservice.loadtest;
+
+import com.srinath.todoservice.loadtest.LoadTestReport.OperationResult;
+import com.srinath.todoservice.loadtest.LoadTestReport.ScenarioResult;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load generator: each worker sends its next request as soon as the previous one completes,
+ * choosing the operation by weight and the todo uniformly from the seeded rows.
+ * <p>
+ * Latency is measured per request, so stalls that hold back the next send are not counted
+ * (coordinated omission). Compare runs with the same concurrency.
+ */
+final class LoadDriver {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final int rows;
+    private final int concurrency;
+    private final Operation[] weightedOperations;
+
+    LoadDriver(HttpClient client, String baseUrl, int rows, int concurrency, Map<Operation, Integer> mix) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.rows = rows;
+        this.concurrency = concurrency;
+        this.weightedOperations = mix.entrySet().stream()
+                .flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+                .toArray(Operation[]::new);
+    }
+
+    ScenarioResult run(Duration duration) {
+        Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+        Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+        for (Operation operation : weightedOperations) {
+            latencies.computeIfAbsent(operation, key -> new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.computeIfAbsent(operation, key -> new LongAdder());
+        }
+
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.submit(() -> {
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        call(latencies, errors);
+                    }
+                });
+            }
+        }
+        return result(latencies, errors, duration);
+    }
+
+    private void call(Map<Operation, Histogram> latencies, Map<Operation, LongAdder> errors) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Operation operation = weightedOperations[random.nextInt(weightedOperations.length)];
+        long start = System.nanoTime();
+        try {
+            HttpResponse<Void> response = client.send(operation.request(baseUrl, LoadTest.todoId(random.nextInt(rows))),
+                    HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 400) {
+                errors.get(operation).increment();
+            }
+        } catch (IOException e) {
+            errors.get(operation).increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        latencies.get(operation).recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+    }
+
+    private ScenarioResult result(Map<Operation, Histogram> latencies, Map<Operation, LongAdder> errors,
+                                  Duration duration) {
+        double seconds = duration.toMillis() / 1000.0;
+        Map<String, OperationResult> operations = new LinkedHashMap<>();
+        long totalRequests = 0;
+        long totalErrors = 0;
+        for (Map.Entry<Operation, Histogram> entry : latencies.entrySet()) {
+            Histogram histogram = entry.getValue();
+            long requests = histogram.getTotalCount();
+            long failed = errors.get(entry.getKey()).sum();
+            operations.put(entry.getKey().key(), new OperationResult(requests, failed, round(requests / seconds),
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue())));
+            totalRequests += requests;
+            totalErrors += failed;
+        }
+        return new ScenarioResult(rows, totalRequests, totalErrors, round(totalRequests / seconds), operations);
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,147 @@
+package com.srinath.todoservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.srinath.todoservice.TodoserviceApplication;
+import com.srinath.todoservice.loadtest.LoadTestReport.OperationResult;
+import com.srinath.todoservice.loadtest.LoadTestReport.ScenarioResult;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+/**
+ * Full-stack load test. For each configured table size it starts the application on a random port with
+ * its own in-memory H2 database, seeds the todos, warms up and then drives the configured mix over HTTP.
+ * The report is written as JSON and, when {@code loadtest.baseline} points to an earlier report,
+ * compared against it.
+ * <p>
+ * Run with {@code mvn -Ploadtest test-compile exec:exec}, see the README for the options.
+ */
+public final class LoadTest {
+
+    private static final int SEED_BATCH_SIZE = 10_000;
+    private static final String INSERT_TODO = "insert into todo (id, description, status, created_at, due_date, "
+            + "completed_at, version) values (?, ?, ?, ?, ?, ?, ?)";
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        String startedAt = LocalDateTime.now().toString();
+        String threads = null;
+        List<ScenarioResult> scenarios = new ArrayList<>();
+        for (int rows : config.rows()) {
+            try (ConfigurableApplicationContext context = start(config, rows)) {
+                threads = Threading.VIRTUAL.isActive(context.getEnvironment()) ? "virtual" : "platform";
+                System.out.printf("Seeding %d todos%n", rows);
+                seed(context.getBean(JdbcTemplate.class), rows);
+
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                        + "/api/v1/todo";
+                LoadDriver driver = new LoadDriver(client, baseUrl, rows, config.concurrency(), config.mix());
+                System.out.printf("Warming up for %ds%n", config.warmupSeconds());
+                driver.run(Duration.ofSeconds(config.warmupSeconds()));
+                System.out.printf("Measuring for %ds against %d todos, %s threads, %d clients%n",
+                        config.durationSeconds(), rows, threads, config.concurrency());
+                ScenarioResult result = driver.run(Duration.ofSeconds(config.durationSeconds()));
+                print(result);
+                scenarios.add(result);
+            }
+        }
+
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        config.mix().forEach((operation, weight) -> mix.put(operation.key(), weight));
+        LoadTestReport report = new LoadTestReport(startedAt, threads, config.concurrency(),
+                config.durationSeconds(), mix, scenarios);
+        Files.createDirectories(config.output().toAbsolutePath().getParent());
+        objectMapper.writeValue(config.output().toFile(), report);
+        System.out.printf("Report written to %s%n", config.output());
+
+        if (config.baseline() != null) {
+            compare(objectMapper.readValue(config.baseline().toFile(), LoadTestReport.class), report);
+        }
+    }
+
+    static UUID todoId(int index) {
+        return new UUID(0, index);
+    }
+
+    private static ConfigurableApplicationContext start(LoadTestConfig config, int rows) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(TodoserviceApplication.class)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:loadtest-" + rows,
+                        "todo.past-due-timer.enabled=false",
+                        "logging.level.root=WARN");
+        if (!config.profiles().isBlank()) {
+            builder.profiles(config.profiles().split(","));
+        }
+        return builder.run();
+    }
+
+    /**
+     * Inserts NOT_DONE todos due a year from now, so every status transition in the mix is allowed.
+     */
+    private static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        LocalDateTime dueDate = LocalDateTime.now().plusYears(1);
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{todoId(i), "Seeded todo " + i, 0, createdAt,
+                    Timestamp.valueOf(dueDate.plusSeconds(i)), null, 0L});
+            if (batch.size() == SEED_BATCH_SIZE || i == rows - 1) {
+                jdbcTemplate.batchUpdate(INSERT_TODO, batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private static void print(ScenarioResult result) {
+        System.out.printf("%-10s %10s %8s %10s %10s %10s %10s%n", "operation", "requests", "errors", "req/s",
+                "p50 ms", "p99 ms", "p999 ms");
+        result.operations().forEach((operation, r) -> System.out.printf("%-10s %10d %8d %10.1f %10.3f %10.3f %10.3f%n",
+                operation, r.requests(), r.errors(), r.throughput(), r.p50(), r.p99(), r.p999()));
+        System.out.printf("%-10s %10d %8d %10.1f%n", "total", result.requests(), result.errors(), result.throughput());
+    }
+
+    private static void compare(LoadTestReport baseline, LoadTestReport current) {
+        System.out.printf("Compared with baseline from %s (%s threads)%n", baseline.startedAt(), baseline.threads());
+        System.out.printf("%10s %-10s %12s %12s %12s%n", "rows", "operation", "req/s", "p99", "p999");
+        for (ScenarioResult scenario : current.scenarios()) {
+            baseline.scenarios().stream().filter(previous -> previous.rows() == scenario.rows()).findFirst()
+                    .ifPresent(previous -> scenario.operations().forEach((operation, result) -> {
+                        OperationResult before = previous.operations().get(operation);
+                        if (before != null) {
+                            System.out.printf("%10d %-10s %12s %12s %12s%n", scenario.rows(), operation,
+                                    change(before.throughput(), result.throughput()),
+                                    change(before.p99(), result.p99()), change(before.p999(), result.p999()));
+                        }
+                    }));
+        }
+    }
+
+    private static String change(double before, double after) {
+        return before == 0 ? "n/a" : String.format("%+.1f%%", (after - before) * 100 / before);
+    }
+}
@@ -0,0 +1,60 @@
+package com.srinath.todoservice.loadtest;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load test settings, read from {@code loadtest.*} system properties. The defaults match the {@code loadtest}
+ * Maven profile.
+ */
+record LoadTestConfig(List<Integer> rows,
+                      int concurrency,
+                      int warmupSeconds,
+                      int durationSeconds,
+                      Map<Operation, Integer> mix,
+                      String profiles,
+                      Path output,
+                      Path baseline) {
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Arrays.stream(property("rows", "10000,100000,1000000").split(","))
+                        .map(String::trim).map(Integer::valueOf).toList(),
+                Integer.parseInt(property("concurrency", "64")),
+                Integer.parseInt(property("warmup-seconds", "10")),
+                Integer.parseInt(property("duration-seconds", "30")),
+                parseMix(property("mix", "create=5,get=50,list=20,done=10,not-done=10,update=5")),
+                property("profiles", ""),
+                Path.of(property("output", "target/loadtest/report-"
+                        + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json")),
+                property("baseline", "").isBlank() ? null : Path.of(property("baseline", "")));
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight in loadtest.mix but got: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.fromKey(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix must give at least one operation a positive weight");
+        }
+        return weights;
+    }
+
+    private static String property(String name, String defaultValue) {
+        String value = System.getProperty("loadtest." + name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
@@ -0,0 +1,37 @@
+package com.srinath.todoservice.loadtest;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Machine-readable result of one load test run, written as JSON so runs can be compared.
+ */
+record LoadTestReport(String startedAt,
+                      String threads,
+                      int concurrency,
+                      int durationSeconds,
+                      Map<String, Integer> mix,
+                      List<ScenarioResult> scenarios) {
+
+    /**
+     * Results for one seeded table size.
+     */
+    record ScenarioResult(int rows,
+                          long requests,
+                          long errors,
+                          double throughput,
+                          Map<String, OperationResult> operations) {
+    }
+
+    /**
+     * Throughput in requests per second and latencies in milliseconds for one operation.
+     */
+    record OperationResult(long requests,
+                           long errors,
+                           double throughput,
+                           double p50,
+                           double p99,
+                           double p999,
+                           double max) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.srinath.todoservice.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Calls the load test can make against {@code TodoController}, keyed by the name used in {@code loadtest.mix}.
+ */
+enum Operation {
+    CREATE("create"),
+    GET_BY_ID("get"),
+    LIST("list"),
+    MARK_DONE("done"),
+    MARK_NOT_DONE("not-done"),
+    UPDATE("update");
+
+    private static final String LIST_PAGE_SIZE = "50";
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    HttpRequest request(String baseUrl, UUID id) {
+        HttpRequest.Builder builder = switch (this) {
+            case CREATE -> HttpRequest.newBuilder(URI.create(baseUrl)).POST(json("{\"description\":\"Load test todo\",\"dueDate\":\""
+                    + LocalDateTime.now().plusYears(1).withNano(0) + "\"}"));
+            case GET_BY_ID -> HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).GET();
+            case LIST -> HttpRequest.newBuilder(URI.create(baseUrl + "?limit=" + LIST_PAGE_SIZE)).GET();
+            case MARK_DONE -> HttpRequest.newBuilder(URI.create(baseUrl + "/" + id + "/done"))
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody());
+            case MARK_NOT_DONE -> HttpRequest.newBuilder(URI.create(baseUrl + "/" + id + "/not-done"))
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody());
+            case UPDATE -> HttpRequest.newBuilder(URI.create(baseUrl + "/" + id))
+                    .PUT(json("{\"description\":\"Updated by load test\"}"));
+        };
+        return builder.header("Content-Type", "application/json").build();
+    }
+
+    static Operation fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation in loadtest.mix: " + key));
+    }
+
+    private static HttpRequest.BodyPublisher json(String body) {
+        return HttpRequest.BodyPublishers.ofString(body);
+    }
+}
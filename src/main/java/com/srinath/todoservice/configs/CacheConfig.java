@@ -0,0 +1,14 @@
+package com.srinath.todoservice.configs;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cache sizes, TTL and stats recording are set through spring.cache.caffeine.spec.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String TODOS_CACHE = "todos";
+}
@@ -0,0 +1,30 @@
+package com.srinath.todoservice.configs;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Tuning for the adaptive concurrency limits in front of the API. Reads and writes each get their own
+ * limit, tuned by these same settings.
+ *
+ * @param enabled      whether requests are limited at all
+ * @param initialLimit requests let in at once before any latency has been measured
+ * @param minLimit     the limit never drops below this, however slow requests get
+ * @param maxLimit     the limit never grows past this
+ * @param windowSize   completed requests averaged into one latency sample before the limit is adjusted
+ * @param tolerance    how many times the usual latency a sample may take before the limit shrinks
+ * @param smoothing    share of each computed limit taken over, between 0 and 1
+ * @param retryAfter   sent with rejected requests as Retry-After
+ */
+@ConfigurationProperties(prefix = "todo.concurrency-limit")
+public record ConcurrencyLimitProperties(@DefaultValue("true") boolean enabled,
+                                         @DefaultValue("20") int initialLimit,
+                                         @DefaultValue("4") int minLimit,
+                                         @DefaultValue("200") int maxLimit,
+                                         @DefaultValue("20") int windowSize,
+                                         @DefaultValue("1.5") double tolerance,
+                                         @DefaultValue("0.2") double smoothing,
+                                         @DefaultValue("1s") Duration retryAfter) {
+}
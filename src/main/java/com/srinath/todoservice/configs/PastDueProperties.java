@@ -0,0 +1,17 @@
+package com.srinath.todoservice.configs;
+
+import com.srinath.todoservice.enums.PastDueMode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param mode whether past due is written by the timer and sweep or derived from the due date when read.
+ *             With {@link PastDueMode#DERIVED} neither the timer nor the sweep runs
+ */
+@ConfigurationProperties(prefix = "todo.past-due")
+public record PastDueProperties(@DefaultValue("stored") PastDueMode mode) {
+
+    public boolean derived() {
+        return mode == PastDueMode.DERIVED;
+    }
+}
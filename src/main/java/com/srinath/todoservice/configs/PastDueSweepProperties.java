@@ -0,0 +1,19 @@
+package com.srinath.todoservice.configs;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Tuning for the scheduled past due sweep.
+ *
+ * @param chunkSize  number of rows updated per statement
+ * @param timeBudget how long a single run may keep taking new chunks; the next run picks up the rest
+ * @param interval   time between runs on each node
+ */
+@ConfigurationProperties(prefix = "todo.past-due-sweep")
+public record PastDueSweepProperties(@DefaultValue("500") int chunkSize,
+                                     @DefaultValue("5s") Duration timeBudget,
+                                     @DefaultValue("1m") Duration interval) {
+}
@@ -0,0 +1,18 @@
+package com.srinath.todoservice.configs;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Tuning for the in-memory past due timer.
+ *
+ * @param horizon   only todos due within this window are held in memory; it must be longer than the
+ *                  refill interval so nothing falls between two refills
+ * @param batchSize max number of todos flipped by one update when many fall due together
+ */
+@ConfigurationProperties(prefix = "todo.past-due-timer")
+public record PastDueTimerProperties(@DefaultValue("15m") Duration horizon,
+                                     @DefaultValue("500") int batchSize) {
+}
@@ -0,0 +1,19 @@
+package com.srinath.todoservice.configs;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Coordination of the past due sweep between nodes sharing one database.
+ *
+ * @param partitions  number of disjoint id ranges the sweep is split into; nodes running at the same time
+ *                    sweep different ranges
+ * @param lockTimeout how long a node may hold a range while sweeping it; a range held by a node that died
+ *                    becomes free again after this. Must be longer than the sweep's time budget
+ */
+@ConfigurationProperties(prefix = "todo.past-due-sweep.lease")
+public record SweepLeaseProperties(@DefaultValue("1") int partitions,
+                                   @DefaultValue("1m") Duration lockTimeout) {
+}
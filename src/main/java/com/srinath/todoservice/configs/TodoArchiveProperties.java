@@ -0,0 +1,23 @@
+package com.srinath.todoservice.configs;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Tuning for the archiver, which moves todos out of the active table.
+ *
+ * @param enabled    whether the archiver runs
+ * @param age        how long after its due date a done or past due todo is archived
+ * @param chunkSize  number of todos moved per statement
+ * @param timeBudget how long a single run may keep taking new chunks; the next run picks up the rest
+ * @param interval   time between runs
+ */
+@ConfigurationProperties(prefix = "todo.archive")
+public record TodoArchiveProperties(@DefaultValue("true") boolean enabled,
+                                    @DefaultValue("30d") Duration age,
+                                    @DefaultValue("500") int chunkSize,
+                                    @DefaultValue("30s") Duration timeBudget,
+                                    @DefaultValue("1h") Duration interval) {
+}
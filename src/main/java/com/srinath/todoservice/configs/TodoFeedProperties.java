@@ -0,0 +1,25 @@
+package com.srinath.todoservice.configs;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Tuning for the server-sent change feed.
+ *
+ * @param replaySize        number of recent events kept for clients resuming with Last-Event-ID
+ * @param bufferSize        events queued per subscriber before it is treated as too slow and disconnected
+ * @param timeout           how long one stream stays open before the client has to reconnect
+ * @param heartbeatInterval time between keep-alive comments on idle streams
+ * @param senderThreads     threads writing events to subscribers, kept apart from the application task executor
+ * @param sendTimeout       how long one write may block before its subscriber is treated as stalled and dropped
+ */
+@ConfigurationProperties(prefix = "todo.feed")
+public record TodoFeedProperties(@DefaultValue("1000") int replaySize,
+                                 @DefaultValue("256") int bufferSize,
+                                 @DefaultValue("30m") Duration timeout,
+                                 @DefaultValue("15s") Duration heartbeatInterval,
+                                 @DefaultValue("8") int senderThreads,
+                                 @DefaultValue("10s") Duration sendTimeout) {
+}
@@ -0,0 +1,24 @@
+package com.srinath.todoservice.configs;
+
+import com.srinath.todoservice.enums.FsyncPolicy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Tuning for the file-backed journal of the in-memory store.
+ *
+ * @param directory     where log segments and the snapshot are kept
+ * @param segmentSize   size of each memory-mapped log segment; a todo record must fit in one
+ * @param fsync         when appended records are forced to disk
+ * @param fsyncInterval how often records are forced with {@link FsyncPolicy#INTERVAL}
+ */
+@ConfigurationProperties(prefix = "todo.journal")
+public record TodoJournalProperties(@DefaultValue("data/journal") Path directory,
+                                    @DefaultValue("64MB") DataSize segmentSize,
+                                    @DefaultValue("always") FsyncPolicy fsync,
+                                    @DefaultValue("100ms") Duration fsyncInterval) {
+}
@@ -0,0 +1,15 @@
+package com.srinath.todoservice.configs;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Tuning for the in-process description search.
+ *
+ * @param maxCandidates most todos scored per search, taken shortest first from the query word matching the fewest
+ *                      todos. Searches needing more are ranked over those only. Also the deepest offset a search
+ *                      can page to
+ */
+@ConfigurationProperties(prefix = "todo.search")
+public record TodoSearchProperties(@DefaultValue("2000") int maxCandidates) {
+}
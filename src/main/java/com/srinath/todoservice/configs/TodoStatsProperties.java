@@ -0,0 +1,17 @@
+package com.srinath.todoservice.configs;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Tuning for the todo stats counters.
+ *
+ * @param dueSoonWindow     how far ahead a not done todo counts as due soon
+ * @param reconcileInterval how often the counters are checked against counts taken from the store
+ */
+@ConfigurationProperties(prefix = "todo.stats")
+public record TodoStatsProperties(@DefaultValue("24h") Duration dueSoonWindow,
+                                  @DefaultValue("5m") Duration reconcileInterval) {
+}
@@ -0,0 +1,18 @@
+package com.srinath.todoservice.configs;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Tuning for delta sync against the database.
+ *
+ * @param commitLag      how long a change sequence number may stay uncommitted; sync only hands out tokens up to
+ *                       the highest number committed at least this long ago. Zero hands out everything committed
+ * @param sampleInterval how often the highest committed number is sampled
+ */
+@ConfigurationProperties(prefix = "todo.sync")
+public record TodoSyncProperties(@DefaultValue("5s") Duration commitLag,
+                                 @DefaultValue("1s") Duration sampleInterval) {
+}
@@ -1,15 +1,40 @@
 package com.srinath.todoservice.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.srinath.todoservice.configs.SmileConfig;
+import com.srinath.todoservice.dtos.BatchCreateResponse;
+import com.srinath.todoservice.dtos.TodoChanges;
 import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.dtos.TodoPage;
+import com.srinath.todoservice.dtos.TodoSearchResults;
+import com.srinath.todoservice.dtos.TodoStats;
+import com.srinath.todoservice.dtos.UpdateTodoStatusesResponse;
 import com.srinath.todoservice.requests.CreateTodoRequest;
 import com.srinath.todoservice.requests.UpdateTodoRequest;
+import com.srinath.todoservice.requests.UpdateTodoStatusesRequest;
+import com.srinath.todoservice.services.TodoArchiveService;
+import com.srinath.todoservice.services.TodoFeedService;
+import com.srinath.todoservice.services.TodoSearchService;
+import com.srinath.todoservice.services.TodoStatsService;
 import com.srinath.todoservice.services.TodoService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
@@ -18,6 +43,13 @@ import java.util.UUID;
 public class TodoController {
 
     private final TodoService todoService;
+    private final TodoFeedService todoFeedService;
+    private final TodoSearchService todoSearchService;
+    private final TodoStatsService todoStatsService;
+    // Only with todo.storage=jpa; in-memory storage never archives
+    private final Optional<TodoArchiveService> todoArchiveService;
+    private final ObjectMapper objectMapper;
+    private final MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter;
 
     /**
      * Create a new todo item
@@ -31,13 +63,27 @@ public class TodoController {
     }
 
     /**
-     * Update the description of a todo
+     * Create many todo items in one transaction. Invalid items are reported per index
+     * and do not stop the valid ones from being created
+     * POST api/v1/todo/batch
+     */
+    @PostMapping("/batch")
+    public BatchCreateResponse createTodoItems(@RequestBody List<CreateTodoRequest> createTodoRequests) {
+
+        return todoService.createTodoItems(createTodoRequests);
+    }
+
+    /**
+     * Update the description of a todo. With If-Match, stale writes are rejected with 412
      * PUT /api/v1/todo/{id}
      */
     @PutMapping("/{id}")
-    public TodoDetails updateTodoDescription(@PathVariable UUID id,
-                                             @RequestBody @Valid UpdateTodoRequest updateTodoRequest) {
-        return todoService.updateTodoDescription(id, updateTodoRequest);
+    public ResponseEntity<TodoDetails> updateTodoDescription(@PathVariable UUID id,
+                                             @RequestBody @Valid UpdateTodoRequest updateTodoRequest,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                             String ifMatch) {
+        return withETag(todoService.updateTodoDescription(id, updateTodoRequest,
+                TodoETags.expectedVersions(ifMatch)));
     }
 
     /**
@@ -45,8 +91,10 @@ public class TodoController {
      * PATCH /api/v1/todo/{id}/done
      */
     @PatchMapping("/{id}/done")
-    public TodoDetails markTodoAsDone(@PathVariable UUID id){
-        return todoService.markTodoAsDone(id);
+    public ResponseEntity<TodoDetails> markTodoAsDone(@PathVariable UUID id,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                      String ifMatch){
+        return withETag(todoService.markTodoAsDone(id, TodoETags.expectedVersions(ifMatch)));
     }
 
     /**
@@ -54,8 +102,21 @@ public class TodoController {
      * PATCH /api/v1/todo/{id}/not-done
      */
     @PatchMapping("/{id}/not-done")
-    public TodoDetails markTodoAsNotDone(@PathVariable UUID id){
-        return todoService.markTodoAsNotDone(id);
+    public ResponseEntity<TodoDetails> markTodoAsNotDone(@PathVariable UUID id,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                         String ifMatch){
+        return withETag(todoService.markTodoAsNotDone(id, TodoETags.expectedVersions(ifMatch)));
+    }
+
+    /**
+     * Mark many todos as done or not done. Past due todos are reported as blocked
+     * PATCH /api/v1/todo/status
+     */
+    @PatchMapping("/status")
+    public UpdateTodoStatusesResponse updateTodoStatuses(
+            @RequestBody @Valid UpdateTodoStatusesRequest updateTodoStatusesRequest){
+        return todoService.updateTodoStatuses(updateTodoStatusesRequest.getIds(),
+                updateTodoStatusesRequest.getStatus());
     }
 
     /**
@@ -69,11 +130,125 @@ public class TodoController {
     }
 
     /**
-     * Get a specific todo by ID
+     * Get a page of todos ordered by due date, with optional filtering
+     * GET /api/v1/todo?limit=100&cursor={next}&includeAll=true
+     */
+    @GetMapping(params = "limit")
+    public TodoPage getTodos(@RequestParam(value = "includeAll", required = false) Boolean includeAll,
+                             @RequestParam("limit") Integer limit,
+                             @RequestParam(value = "cursor", required = false) String cursor){
+        return todoService.getTodos(includeAll, limit, cursor);
+    }
+
+    /**
+     * Get a page of archived todos ordered by due date. Todos are archived a while after their due date
+     * has passed and are no longer returned by the listings above
+     * GET /api/v1/todo/archive?limit=100&cursor={next}
+     */
+    @GetMapping("/archive")
+    public TodoPage getArchivedTodos(@RequestParam(value = "limit", defaultValue = "100") Integer limit,
+                                     @RequestParam(value = "cursor", required = false) String cursor){
+        return todoArchiveService.map(service -> service.getArchivedTodos(limit, cursor))
+                .orElseGet(() -> new TodoPage(List.of(), null));
+    }
+
+    /**
+     * Search todo descriptions. Every word must match a word in the description or the start of one;
+     * results are ranked by relevance
+     * GET /api/v1/todo/search?q=groceries&limit=20&offset=0
+     */
+    @GetMapping("/search")
+    public TodoSearchResults searchTodos(@RequestParam("q") String query,
+                                         @RequestParam(value = "limit", defaultValue = "20") Integer limit,
+                                         @RequestParam(value = "offset", defaultValue = "0") Integer offset){
+        return todoSearchService.searchTodos(query, limit, offset);
+    }
+
+    /**
+     * Get todo counts by status, with overdue and due soon totals, from counters kept in memory
+     * GET /api/v1/todo/stats
+     */
+    @GetMapping("/stats")
+    public TodoStats getTodoStats(){
+        return todoStatsService.getStats();
+    }
+
+    /**
+     * Get the todos changed since a sync token, oldest change first, with the token for the next sync.
+     * Without a token every todo is returned, in pages of up to limit
+     * GET /api/v1/todo/changes?token={token}&limit=500
+     */
+    @GetMapping("/changes")
+    public TodoChanges getTodoChanges(@RequestParam(value = "token", required = false) String token,
+                                      @RequestParam(value = "limit", defaultValue = "500") Integer limit){
+        return todoService.getTodoChanges(token, limit);
+    }
+
+    /**
+     * Get a specific todo by ID. Answers 304 when If-None-Match carries the current ETag
      * GET /api/v1/todo/{id}
      */
     @GetMapping("/{id}")
-    public TodoDetails getTodoById(@PathVariable UUID id){
-        return todoService.getTodoById(id);
+    public ResponseEntity<TodoDetails> getTodoById(@PathVariable UUID id){
+        // Spring compares the ETag with If-None-Match and turns this into a 304 when they match
+        return withETag(todoService.getTodoById(id));
+    }
+
+    /**
+     * Export all todos as newline-delimited JSON, streamed straight from the database. Clients asking for
+     * Smile get a sequence of Smile values instead, written by one generator so field names and statuses
+     * are only spelled out once
+     * GET /api/v1/todo/export
+     */
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, SmileConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportTodos(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept){
+        // Decided here rather than by two mappings, which would tie for clients accepting anything
+        if (accept != null && MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(SmileConfig.APPLICATION_SMILE::equalsTypeAndSubtype)) {
+            return ResponseEntity.ok().contentType(SmileConfig.APPLICATION_SMILE).body(exportAsSmile());
+        }
+        ObjectWriter writer = objectMapper.writerFor(TodoDetails.class);
+        StreamingResponseBody body = outputStream -> todoService.exportTodos(todo -> {
+            try {
+                outputStream.write(writer.writeValueAsBytes(todo));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Stream todo changes as server-sent events. Reconnects resume after the Last-Event-ID header,
+     * or the lastEventId parameter for the first connection
+     * GET /api/v1/todo/events
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTodoEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(value = "lastEventId", required = false) String lastEventId){
+        return todoFeedService.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+
+    private StreamingResponseBody exportAsSmile() {
+        ObjectWriter writer = smileHttpMessageConverter.getObjectMapper().writerFor(TodoDetails.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return outputStream -> {
+            try (SequenceWriter values = writer.writeValues(outputStream)) {
+                todoService.exportTodos(todo -> {
+                    try {
+                        values.write(todo);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+    }
+
+    private ResponseEntity<TodoDetails> withETag(TodoDetails todo) {
+        return ResponseEntity.ok().eTag(TodoETags.of(todo)).body(todo);
     }
 }
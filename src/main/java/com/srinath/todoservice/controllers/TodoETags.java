@@ -0,0 +1,54 @@
+package com.srinath.todoservice.controllers;
+
+import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.enums.TodoStatus;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A todo's ETag is its version, marked when the todo reads as past due. When past due is derived the status
+ * changes at read time without a new version, so the mark keeps a client's earlier tag from answering 304 with
+ * a body that still says not done. If-Match uses strong comparison, so weak tags never match.
+ */
+final class TodoETags {
+
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+    private static final String PAST_DUE_SUFFIX = "-pd";
+
+    private TodoETags() {
+    }
+
+    static String of(TodoDetails todo) {
+        String suffix = TodoStatus.PAST_DUE.toString().equals(todo.status()) ? PAST_DUE_SUFFIX : "";
+        return "\"" + todo.version() + suffix + "\"";
+    }
+
+    /**
+     * Returns the versions any of the listed tags match, or null when there is no precondition.
+     * Weak tags and tags that are not ours match no version, so an If-Match made only of those leaves the set empty.
+     */
+    static Set<Long> expectedVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals(ANY)) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith(WEAK_PREFIX) || tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+                continue;
+            }
+            String opaque = tag.substring(1, tag.length() - 1);
+            if (opaque.endsWith(PAST_DUE_SUFFIX)) {
+                opaque = opaque.substring(0, opaque.length() - PAST_DUE_SUFFIX.length());
+            }
+            try {
+                versions.add(Long.parseLong(opaque));
+            } catch (NumberFormatException e) {
+                // Not one of ours
+            }
+        }
+        return versions;
+    }
+}
@@ -0,0 +1,16 @@
+package com.srinath.todoservice.dtos;
+
+/**
+ * Outcome for one item of a batch create, in request order. Either {@code todo} or the status code
+ * and description of the validation error is set.
+ */
+public record BatchCreateItemResult(int index, TodoDetails todo, String statusCode, String statusDescription) {
+
+    public static BatchCreateItemResult created(int index, TodoDetails todo) {
+        return new BatchCreateItemResult(index, todo, null, null);
+    }
+
+    public static BatchCreateItemResult failed(int index, String statusCode, String statusDescription) {
+        return new BatchCreateItemResult(index, null, statusCode, statusDescription);
+    }
+}
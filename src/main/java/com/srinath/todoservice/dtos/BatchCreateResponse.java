@@ -0,0 +1,6 @@
+package com.srinath.todoservice.dtos;
+
+import java.util.List;
+
+public record BatchCreateResponse(int created, int failed, List<BatchCreateItemResult> results) {
+}
@@ -0,0 +1,29 @@
+package com.srinath.todoservice.dtos;
+
+import com.srinath.todoservice.exceptions.InvalidParameterException;
+import com.srinath.todoservice.exceptions.statuscodes.StatusCodes;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the change sequence a client has synced up to. Clients only ever see the encoded form.
+ */
+public record ChangeToken(long changeSeq) {
+
+    public static final ChangeToken START = new ChangeToken(0);
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(changeSeq).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ChangeToken decode(String token) {
+        try {
+            return new ChangeToken(Long.parseLong(
+                    new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)));
+        } catch (RuntimeException e) {
+            throw new InvalidParameterException(StatusCodes.INVALID_CHANGE_TOKEN);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.srinath.todoservice.dtos;
+
+/**
+ * Outcome of one past-due sweep: todos selected as due, and todos actually moved to PAST_DUE. The two
+ * differ when a todo is completed between the select and the update.
+ */
+public record PastDueSweepResult(int scanned, int updated) {
+}
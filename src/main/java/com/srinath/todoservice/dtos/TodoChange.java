@@ -0,0 +1,27 @@
+package com.srinath.todoservice.dtos;
+
+import com.srinath.todoservice.enums.TodoStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A todo as read by the delta sync, with the change sequence number of its latest write. An archived change is
+ * the todo's move to the archive, numbered when it was copied there, and tells clients to drop it.
+ */
+public record TodoChange(long changeSeq, TodoDetails todo, boolean archived) {
+
+    public TodoChange(long changeSeq, TodoDetails todo) {
+        this(changeSeq, todo, false);
+    }
+
+    // Used by the constructor expressions in TodoRepository and ArchivedTodoRepository
+    public TodoChange(Long changeSeq, UUID id, String description, TodoStatus status, LocalDateTime createdAt,
+                      LocalDateTime dueDate, LocalDateTime completedAt, Long version, boolean archived) {
+        this(changeSeq, new TodoDetails(id, description, status, createdAt, dueDate, completedAt, version), archived);
+    }
+
+    public TodoChange withTodo(TodoDetails todo) {
+        return new TodoChange(changeSeq, todo, archived);
+    }
+}
@@ -0,0 +1,24 @@
+package com.srinath.todoservice.dtos;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Todos changed since a client's token, each at its latest state, and the ids of todos moved to the archive
+ * since then, which clients should drop after applying {@code items}. {@code token} is passed back on the next
+ * sync; while {@code hasMore} is true, further changes are waiting and can be fetched straight away.
+ */
+public record TodoChanges(List<TodoDetails> items, List<UUID> archived, String token, boolean hasMore) {
+
+    /**
+     * Builds the response from up to {@code limit + 1} changes after {@code after}; the extra one only
+     * signals that more are waiting.
+     */
+    public static TodoChanges of(ChangeToken after, List<TodoChange> changes, int limit) {
+        List<TodoChange> page = changes.size() > limit ? changes.subList(0, limit) : changes;
+        ChangeToken token = page.isEmpty() ? after : new ChangeToken(page.get(page.size() - 1).changeSeq());
+        return new TodoChanges(page.stream().filter(change -> !change.archived()).map(TodoChange::todo).toList(),
+                page.stream().filter(TodoChange::archived).map(change -> change.todo().id()).toList(),
+                token.encode(), changes.size() > limit);
+    }
+}
@@ -0,0 +1,38 @@
+package com.srinath.todoservice.dtos;
+
+import com.srinath.todoservice.exceptions.InvalidParameterException;
+import com.srinath.todoservice.exceptions.statuscodes.StatusCodes;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in the (dueDate, id) ordering used by the paged todo listing.
+ * Clients only ever see the encoded form.
+ */
+public record TodoCursor(LocalDateTime dueDate, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static TodoCursor of(TodoDetails todo) {
+        return new TodoCursor(todo.dueDate(), todo.id());
+    }
+
+    public String encode() {
+        String raw = dueDate + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TodoCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            return new TodoCursor(LocalDateTime.parse(raw.substring(0, separatorIndex)),
+                    UUID.fromString(raw.substring(separatorIndex + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidParameterException(StatusCodes.INVALID_CURSOR);
+        }
+    }
+}
@@ -1,12 +1,30 @@
 package com.srinath.todoservice.dtos;
 
 import com.srinath.todoservice.entities.Todo;
+import com.srinath.todoservice.enums.TodoStatus;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 public record TodoDetails(UUID id, String description, String status, LocalDateTime createdAt,
-                          LocalDateTime dueDate, LocalDateTime completedAt) {
+                          LocalDateTime dueDate, LocalDateTime completedAt, Long version) {
+
+    // Used by the constructor expressions in TodoRepository
+    public TodoDetails(UUID id, String description, TodoStatus status, LocalDateTime createdAt,
+                       LocalDateTime dueDate, LocalDateTime completedAt, Long version) {
+        this(id, description, status.toString(), createdAt, dueDate, completedAt, version);
+    }
+
+    /**
+     * This todo as read at {@code now} when past due is derived: not done with its due date passed reads
+     * as past due.
+     */
+    public TodoDetails derivePastDue(LocalDateTime now) {
+        return TodoStatus.NOT_DONE.toString().equals(status) && dueDate.isBefore(now)
+                ? new TodoDetails(id, description, TodoStatus.PAST_DUE.toString(), createdAt, dueDate, completedAt, version)
+                : this;
+    }
+
     public static TodoDetails fromEntity(Todo todo) {
         return new TodoDetails(
                 todo.getId(),
@@ -14,7 +32,8 @@ public record TodoDetails(UUID id, String description, String status, LocalDateT
                 todo.getStatus().toString(),
                 todo.getCreatedAt(),
                 todo.getDueDate(),
-                todo.getCompletedAt()
+                todo.getCompletedAt(),
+                todo.getVersion()
         );
     }
 }
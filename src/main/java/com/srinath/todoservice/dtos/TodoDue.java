@@ -0,0 +1,7 @@
+package com.srinath.todoservice.dtos;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record TodoDue(UUID id, LocalDateTime dueDate) {
+}
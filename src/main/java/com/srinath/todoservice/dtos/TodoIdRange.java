@@ -0,0 +1,40 @@
+package com.srinath.todoservice.dtos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Inclusive range of todo ids, ordered the way H2 orders UUIDs: unsigned, most significant bits first.
+ */
+public record TodoIdRange(UUID first, UUID last) {
+
+    public static final TodoIdRange ALL = new TodoIdRange(new UUID(0, 0), new UUID(-1L, -1L));
+
+    /**
+     * Splits the id space into {@code count} contiguous ranges of equal width. Random UUIDs spread evenly
+     * over them.
+     */
+    public static List<TodoIdRange> partitions(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Partition count must be at least 1");
+        }
+        long width = Long.divideUnsigned(-1L, count);
+        List<TodoIdRange> ranges = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long firstBits = i * width;
+            long lastBits = i == count - 1 ? -1L : (i + 1) * width - 1;
+            ranges.add(new TodoIdRange(new UUID(firstBits, 0), new UUID(lastBits, -1L)));
+        }
+        return ranges;
+    }
+
+    public boolean contains(UUID id) {
+        return compare(id, first) >= 0 && compare(id, last) <= 0;
+    }
+
+    private static int compare(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,10 @@
+package com.srinath.todoservice.dtos;
+
+import java.util.List;
+
+/**
+ * A single page of todos. {@code next} is an opaque cursor for the following page,
+ * or null when there are no more items.
+ */
+public record TodoPage(List<TodoDetails> items, String next) {
+}
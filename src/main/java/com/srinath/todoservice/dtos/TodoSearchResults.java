@@ -0,0 +1,10 @@
+package com.srinath.todoservice.dtos;
+
+import java.util.List;
+
+/**
+ * A page of search results, best match first. {@code nextOffset} fetches the following page,
+ * or is null when there are no more matches.
+ */
+public record TodoSearchResults(List<TodoDetails> items, Integer nextOffset) {
+}
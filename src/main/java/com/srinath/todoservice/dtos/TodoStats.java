@@ -0,0 +1,13 @@
+package com.srinath.todoservice.dtos;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Todo counts by status. {@code overdue} adds the not done todos already past their due date, which the
+ * sweep has yet to mark, to the past due ones; {@code dueSoon} counts not done todos falling due within
+ * {@code dueSoonWindow}. Counts are kept as todos change and checked against the store at {@code checkedAt}.
+ */
+public record TodoStats(long total, long notDone, long done, long pastDue, long overdue, long dueSoon,
+                        Duration dueSoonWindow, LocalDateTime checkedAt) {
+}
@@ -0,0 +1,6 @@
+package com.srinath.todoservice.dtos;
+
+import com.srinath.todoservice.enums.TodoStatus;
+
+public record TodoStatusCount(TodoStatus status, long count) {
+}
@@ -0,0 +1,11 @@
+package com.srinath.todoservice.dtos;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of a bulk status change. {@code blocked} holds todos that are past due and so cannot be modified.
+ */
+public record UpdateTodoStatusesResponse(List<UUID> changed, List<UUID> unchanged, List<UUID> notFound,
+                                         List<UUID> blocked) {
+}
@@ -0,0 +1,49 @@
+package com.srinath.todoservice.entities;
+
+import com.srinath.todoservice.enums.TodoStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A todo moved out of the {@link Todo} table by the archiver once its due date is long past. Only ever
+ * inserted and read: a todo past its due date can no longer be modified, so the copy never goes stale.
+ */
+@Entity
+@Table(indexes = {
+        // Archive listing ordered by (dueDate, id)
+        @Index(name = "idx_archived_todo_due_date", columnList = "dueDate, id"),
+        // Delta sync: todos archived after a client's token
+        @Index(name = "idx_archived_todo_change_seq", columnList = "changeSeq")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedTodo {
+
+    // Same id as the todo it was moved from
+    @Id
+    private UUID id;
+    private String description;
+    private TodoStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime dueDate;
+    private LocalDateTime completedAt;
+    // The todo's version when it was archived, so ETags stay the same across the move
+    private Long version;
+    private LocalDateTime archivedAt;
+    // Taken from todo_change_seq when the todo is copied here, so the move shows up in delta sync after the
+    // todo's last write. Only read by the delta sync query, like Todo.changeSeq.
+    @Column(insertable = false, updatable = false, columnDefinition = "bigint default next value for todo_change_seq")
+    private Long changeSeq;
+}
@@ -0,0 +1,28 @@
+package com.srinath.todoservice.entities;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per sweep partition, shared by all nodes. A node owns the partition while {@code lockedUntil} is in
+ * the future; {@code sweptAt} records the last completed sweep so the partition is swept once per interval.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SweepLease {
+
+    @Id
+    private String name;
+    private String owner;
+    private LocalDateTime lockedUntil;
+    private LocalDateTime sweptAt;
+}
@@ -12,6 +12,15 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        // Status filtered listing and the past due sweep: equality on status, then range/order on due date.
+        // Covers the sweep query, which only reads id and due date.
+        @Index(name = "idx_todo_status_due_date", columnList = "status, dueDate, id"),
+        // Unfiltered listing ordered by (dueDate, id)
+        @Index(name = "idx_todo_due_date", columnList = "dueDate, id"),
+        // Delta sync: changes after a client's token, in the order they were made
+        @Index(name = "idx_todo_change_seq", columnList = "changeSeq")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -26,4 +35,11 @@ public class Todo {
     private LocalDateTime createdAt;
     private LocalDateTime dueDate;
     private LocalDateTime completedAt;
+    @Version
+    private Long version;
+    // Assigned by the database from todo_change_seq (schema.sql) on every insert and update, bulk updates
+    // included. Only read by the delta sync query, so the entity never fetches it back.
+    @Column(insertable = false, updatable = false, columnDefinition = "bigint default next value for "
+            + "todo_change_seq on update next value for todo_change_seq")
+    private Long changeSeq;
 }
@@ -0,0 +1,14 @@
+package com.srinath.todoservice.enums;
+
+/**
+ * When the todo journal forces appended records to disk.
+ */
+public enum FsyncPolicy {
+
+    // A write returns only after the record is on disk. Concurrent writes share one force (group commit)
+    ALWAYS,
+    // Records are forced in the background every fsync interval; a crash can lose that much
+    INTERVAL,
+    // The OS writes pages back when it chooses; only a clean shutdown forces the log
+    NEVER
+}
@@ -0,0 +1,12 @@
+package com.srinath.todoservice.enums;
+
+/**
+ * How a not done todo becomes past due once its due date has passed.
+ */
+public enum PastDueMode {
+
+    // The timer and sweep write PAST_DUE to the todo, and publish a past due event for it
+    STORED,
+    // Nothing is written; reads show a not done todo whose due date has passed as past due
+    DERIVED
+}
@@ -0,0 +1,9 @@
+package com.srinath.todoservice.enums;
+
+public enum TodoChangeType {
+
+    CREATED,
+    DESCRIPTION_UPDATED,
+    MARKED_DONE,
+    MARKED_NOT_DONE
+}
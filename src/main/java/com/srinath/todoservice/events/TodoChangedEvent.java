@@ -0,0 +1,10 @@
+package com.srinath.todoservice.events;
+
+import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.enums.TodoChangeType;
+
+/**
+ * Published by the service after a single todo has been written. {@code todo} is the state after the change.
+ */
+public record TodoChangedEvent(TodoChangeType type, TodoDetails todo) {
+}
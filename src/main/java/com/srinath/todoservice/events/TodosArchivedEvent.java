@@ -0,0 +1,13 @@
+package com.srinath.todoservice.events;
+
+import com.srinath.todoservice.dtos.TodoDue;
+import com.srinath.todoservice.enums.TodoStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published after a chunk of todos, all with the same stored status, was moved to the archive.
+ */
+public record TodosArchivedEvent(TodoStatus status, List<TodoDue> todos, LocalDateTime archivedAt) {
+}
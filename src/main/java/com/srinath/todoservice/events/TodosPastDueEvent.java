@@ -0,0 +1,13 @@
+package com.srinath.todoservice.events;
+
+import com.srinath.todoservice.dtos.TodoDue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published after a bulk transition of todos to PAST_DUE, either by the timer or by the sweep. Lists only the
+ * todos the transition flipped; ones completed or flipped elsewhere since they were selected are left out.
+ */
+public record TodosPastDueEvent(List<TodoDue> todos, LocalDateTime markedAt) {
+}
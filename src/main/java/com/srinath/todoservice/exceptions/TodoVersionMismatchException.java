@@ -0,0 +1,16 @@
+package com.srinath.todoservice.exceptions;
+
+import com.srinath.todoservice.exceptions.statuscodes.StatusCodes;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+public class TodoVersionMismatchException extends ApiException{
+
+    public TodoVersionMismatchException(String statusCode, String statusDescription) {
+        super(statusCode, statusDescription);
+    }
+
+    public TodoVersionMismatchException(StatusCodes statusCode) {
+        this(statusCode.getStatusCode(), statusCode.getStatusDescription());
+    }
+}
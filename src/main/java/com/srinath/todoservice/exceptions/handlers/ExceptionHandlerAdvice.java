@@ -3,13 +3,18 @@ package com.srinath.todoservice.exceptions.handlers;
 import com.srinath.todoservice.exceptions.InvalidParameterException;
 import com.srinath.todoservice.exceptions.TodoCannotBeModifiedException;
 import com.srinath.todoservice.exceptions.TodoNotFoundException;
+import com.srinath.todoservice.exceptions.TodoVersionMismatchException;
+import com.srinath.todoservice.exceptions.statuscodes.StatusCodes;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.WebRequest;
 
 @Slf4j
 @ControllerAdvice()
@@ -49,6 +54,37 @@ public class ExceptionHandlerAdvice {
                                 todoNotFoundException.getStatusDescription()));
     }
 
+    @ExceptionHandler(TodoVersionMismatchException.class)
+    public ResponseEntity<Object> handleTodoVersionMismatchException(
+            TodoVersionMismatchException todoVersionMismatchException) {
+
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON).body(
+                        buildBody(TodoVersionMismatchException.class.getSimpleName(),
+                                todoVersionMismatchException.getStatusCode(),
+                                todoVersionMismatchException.getStatusDescription()));
+    }
+
+    /**
+     * A client that sent an If-Match tag lost the race for the version it named, so its precondition failed.
+     * Without one (or with "*") the write simply collided with another.
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleObjectOptimisticLockingFailureException(
+            ObjectOptimisticLockingFailureException objectOptimisticLockingFailureException, WebRequest webRequest) {
+
+        log.debug("Concurrent modification detected", objectOptimisticLockingFailureException);
+        String ifMatch = webRequest.getHeader(HttpHeaders.IF_MATCH);
+        if (ifMatch != null && !ifMatch.isBlank() && !ifMatch.trim().equals("*")) {
+            return handleTodoVersionMismatchException(
+                    new TodoVersionMismatchException(StatusCodes.TODO_VERSION_MISMATCH));
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON).body(
+                        buildBody(ObjectOptimisticLockingFailureException.class.getSimpleName(),
+                                StatusCodes.TODO_CONCURRENTLY_MODIFIED.getStatusCode(),
+                                StatusCodes.TODO_CONCURRENTLY_MODIFIED.getStatusDescription()));
+    }
 
     private String buildBody(String title, String statusCode, String description) {
         return "{\n" + "\"title\" : \"" + title + "\" ,\n" + "\"status\" : \"" + statusCode + "\",\n"
@@ -7,8 +7,18 @@ public enum StatusCodes {
 
     DESCRIPTION_NOT_EMPTY("1001", "Description must not be empty"),
     DUE_DATE_CANNOT_BE_PAST("1002", "Due date must not be in the past"),
+    INVALID_CURSOR("1003", "Cursor is not valid"),
+    INVALID_PAGE_LIMIT("1004", "Limit must be between 1 and 1000"),
+    INVALID_BATCH_SIZE("1005", "Batch must contain between 1 and 1000 items"),
+    INVALID_TARGET_STATUS("1006", "Status can only be changed to done or not done"),
+    INVALID_CHANGE_TOKEN("1007", "Change token is not valid"),
+    INVALID_SEARCH_QUERY("1008", "Search query must contain at least one word"),
+    INVALID_SEARCH_OFFSET("1009", "Offset must not be negative or beyond the searched todos"),
     TODO_NOT_FOUND("2001", "Todo item with given id not found"),
     PAST_TODO_CONNOT_MODIFY("2002" , "Past due todo items cannot be modified"),
+    TODO_VERSION_MISMATCH("2003", "Todo item has been modified since it was last read"),
+    TODO_CONCURRENTLY_MODIFIED("2004", "Todo item was modified concurrently, please retry"),
+    SERVICE_OVERLOADED("3001", "Too many requests in progress, please retry after the Retry-After delay"),
     ;
 
     private final String statusCode;
@@ -0,0 +1,107 @@
+package com.srinath.todoservice.filters;
+
+import com.srinath.todoservice.configs.ConcurrencyLimitProperties;
+import com.srinath.todoservice.exceptions.statuscodes.StatusCodes;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sheds load in front of the todo API once requests start queueing. Reads and writes each pass through
+ * their own {@link GradientConcurrencyLimit}, so a burst of slow writes does not hold back reads or the
+ * other way round. A request arriving while its limit is used up is answered straight away with a 503 and
+ * Retry-After, rather than waiting for a database connection behind everyone else.
+ * <p>
+ * The change feed and export hold their response open for as long as the client reads, so they are left
+ * out: their duration says nothing about load.
+ */
+@Component
+@ConditionalOnBooleanProperty(name = "todo.concurrency-limit.enabled", matchIfMissing = true)
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String API_PATH = "/api/v1/todo";
+    private static final String TITLE = "ConcurrencyLimitExceeded";
+
+    private final GradientConcurrencyLimit readLimit;
+    private final GradientConcurrencyLimit writeLimit;
+    private final Counter rejectedReads;
+    private final Counter rejectedWrites;
+    private final String retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.readLimit = new GradientConcurrencyLimit(properties);
+        this.writeLimit = new GradientConcurrencyLimit(properties);
+        this.rejectedReads = registerMeters("read", readLimit, meterRegistry);
+        this.rejectedWrites = registerMeters("write", writeLimit, meterRegistry);
+        // Retry-After only takes whole seconds
+        this.retryAfterSeconds = Long.toString(Math.max(1, properties.retryAfter().toSeconds()));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith(API_PATH) || path.equals(API_PATH + "/events") || path.equals(API_PATH + "/export");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        GradientConcurrencyLimit limit = read ? readLimit : writeLimit;
+        if (!limit.tryAcquire()) {
+            (read ? rejectedReads : rejectedWrites).increment();
+            log.debug("Rejected {} {} at concurrency limit {}", request.getMethod(), request.getRequestURI(),
+                    limit.getLimit());
+            reject(response);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limit.release(System.nanoTime() - start);
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        // Same shape as the bodies written by ExceptionHandlerAdvice
+        response.getWriter().write("{\n" + "\"title\" : \"" + TITLE + "\" ,\n"
+                + "\"status\" : \"" + StatusCodes.SERVICE_OVERLOADED.getStatusCode() + "\",\n"
+                + "\"detail\" : \"" + StatusCodes.SERVICE_OVERLOADED.getStatusDescription() + "\"\n" + "}");
+    }
+
+    private static Counter registerMeters(String type, GradientConcurrencyLimit limit, MeterRegistry meterRegistry) {
+        Gauge.builder("todo.concurrency.limit", limit, GradientConcurrencyLimit::getLimit)
+                .description("Requests currently let in at once")
+                .tag("type", type)
+                .register(meterRegistry);
+        Gauge.builder("todo.concurrency.inflight", limit, GradientConcurrencyLimit::getInflight)
+                .description("Requests in progress")
+                .tag("type", type)
+                .register(meterRegistry);
+        return Counter.builder("todo.concurrency.rejected")
+                .description("Requests rejected at the concurrency limit")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,101 @@
+package com.srinath.todoservice.filters;
+
+import com.srinath.todoservice.configs.ConcurrencyLimitProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A concurrency limit that adapts to measured latency, after the gradient algorithm.
+ * <p>
+ * Completed requests are averaged over windows of {@code windowSize}. Each window's latency is compared
+ * with a long running average standing for the latency without queueing. While a window stays within
+ * {@code tolerance} of it the limit grows by a share of its square root, to find out whether there is more
+ * capacity.
+ * Slower windows shrink the limit in proportion, down to half per window, so queueing in front of the
+ * database is backed off from before it shows up as timeouts. Windows in which fewer than half the
+ * allowed requests were in flight are not used to grow the limit, since they say nothing about capacity.
+ * <p>
+ * Admission is a compare-and-set on the in-flight count; only the once per window adjustment takes a lock.
+ */
+public class GradientConcurrencyLimit {
+
+    // Samples the long running average roughly spans
+    private static final int LONG_WINDOW = 600;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int windowSize;
+    private final double tolerance;
+    private final double smoothing;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimatedLimit;
+    private double longLatency;
+    private long windowLatencySum;
+    private int windowCount;
+    private int windowMaxInflight;
+
+    public GradientConcurrencyLimit(ConcurrencyLimitProperties properties) {
+        this.minLimit = properties.minLimit();
+        this.maxLimit = properties.maxLimit();
+        this.windowSize = properties.windowSize();
+        this.tolerance = properties.tolerance();
+        this.smoothing = properties.smoothing();
+        this.estimatedLimit = Math.clamp(properties.initialLimit(), minLimit, maxLimit);
+        this.limit = (int) estimatedLimit;
+    }
+
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inflight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inflight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Gives back a slot taken by {@link #tryAcquire()}, recording how long the request held it.
+     */
+    public void release(long latencyNanos) {
+        int inflightBefore = inflight.getAndDecrement();
+        synchronized (this) {
+            windowLatencySum += latencyNanos;
+            windowMaxInflight = Math.max(windowMaxInflight, inflightBefore);
+            if (++windowCount == windowSize) {
+                adjust((double) windowLatencySum / windowCount, windowMaxInflight);
+                windowLatencySum = 0;
+                windowCount = 0;
+                windowMaxInflight = 0;
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    private void adjust(double latency, int maxInflight) {
+        longLatency = longLatency == 0 ? latency : longLatency + (latency - longLatency) / LONG_WINDOW;
+        // After a long slow spell the average has crept up; let it fall back quickly once latency recovers
+        if (longLatency > 2 * latency) {
+            longLatency *= 0.95;
+        }
+        double gradient = Math.clamp(tolerance * longLatency / latency, MIN_GRADIENT, 1.0);
+        if (gradient == 1.0 && maxInflight < estimatedLimit / 2) {
+            return;
+        }
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.clamp(estimatedLimit * (1 - smoothing) + newLimit * smoothing, minLimit, maxLimit);
+        limit = (int) estimatedLimit;
+    }
+}
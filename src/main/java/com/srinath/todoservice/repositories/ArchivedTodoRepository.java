@@ -0,0 +1,57 @@
+package com.srinath.todoservice.repositories;
+
+import com.srinath.todoservice.dtos.TodoChange;
+import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.entities.ArchivedTodo;
+import com.srinath.todoservice.enums.TodoStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ArchivedTodoRepository extends JpaRepository<ArchivedTodo, UUID> {
+
+    String SELECT_DETAILS = "select new com.srinath.todoservice.dtos.TodoDetails(a.id, a.description, a.status, " +
+            "a.createdAt, a.dueDate, a.completedAt, a.version) from ArchivedTodo a ";
+    String ORDER_BY_DUE_DATE = " order by a.dueDate asc, a.id asc";
+
+    @Query(SELECT_DETAILS + "where a.id = :id")
+    Optional<TodoDetails> findDetailsById(UUID id);
+
+    @Query(SELECT_DETAILS + ORDER_BY_DUE_DATE)
+    List<TodoDetails> findDetails(Limit limit);
+
+    @Query(SELECT_DETAILS + "where a.dueDate >= :dueDate " +
+            "and (a.dueDate > :dueDate or a.id > :id)" + ORDER_BY_DUE_DATE)
+    List<TodoDetails> findDetailsAfter(LocalDateTime dueDate, UUID id, Limit limit);
+
+    // Tombstones for delta sync, bounded like TodoRepository.findChangesAfter
+    @Query("select new com.srinath.todoservice.dtos.TodoChange(a.changeSeq, a.id, a.description, a.status, " +
+            "a.createdAt, a.dueDate, a.completedAt, a.version, true) from ArchivedTodo a " +
+            "where a.changeSeq > :afterChangeSeq and a.changeSeq <= :upToChangeSeq order by a.changeSeq asc")
+    List<TodoChange> findChangesAfter(long afterChangeSeq, long upToChangeSeq, Limit limit);
+
+    @Query("select max(a.changeSeq) from ArchivedTodo a")
+    Long findMaxChangeSeq();
+
+    @Query("select a.id from ArchivedTodo a where a.id in :ids")
+    List<UUID> findIdsByIdIn(Collection<UUID> ids);
+
+    // Skips todos already copied, so a chunk whose delete never ran can simply be archived again. Status and
+    // due date are checked again so rows changed since they were selected stay where they are.
+    @Transactional
+    @Modifying
+    @Query("insert into ArchivedTodo (id, description, status, createdAt, dueDate, completedAt, version, archivedAt) " +
+            "select t.id, t.description, t.status, t.createdAt, t.dueDate, t.completedAt, t.version, " +
+            "cast(:archivedAt as LocalDateTime) from Todo t " +
+            "where t.id in :ids and t.status = :status and t.dueDate < :dueBefore " +
+            "and not exists (select 1 from ArchivedTodo a where a.id = t.id)")
+    int copyFromTodos(Collection<UUID> ids, TodoStatus status, LocalDateTime dueBefore, LocalDateTime archivedAt);
+}
@@ -0,0 +1,363 @@
+package com.srinath.todoservice.repositories;
+
+import com.srinath.todoservice.configs.TodoJournalProperties;
+import com.srinath.todoservice.enums.FsyncPolicy;
+import com.srinath.todoservice.repositories.InMemoryTodoStore.StoredTodo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * {@link TodoJournal} kept in a directory of memory-mapped, append-only log segments plus one compacted
+ * snapshot. Appending copies the record into the mapped segment; a background thread forces the segment to
+ * disk according to the {@link FsyncPolicy}. With {@link FsyncPolicy#ALWAYS} writers wait for the force that
+ * covers their record, so writes arriving while a force is in progress are committed together by the next one.
+ * <p>
+ * {@link #compact(Consumer)} rolls to a new segment, waits until the store has published every record appended
+ * before the roll, writes every current todo to a new snapshot and deletes the segments the snapshot covers.
+ * Recovery loads the snapshot and replays the segments written since.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.storage", havingValue = "memory")
+@ConditionalOnBooleanProperty("todo.journal.enabled")
+@Slf4j
+public class FileTodoJournal implements TodoJournal, Closeable {
+
+    static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final long SNAPSHOT_MAGIC = 0x544F444F534E4150L;
+    private static final int SNAPSHOT_BUFFER_SIZE = 1 << 20;
+    private static final long UNAPPLIED_POLL_NANOS = 10_000;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final FsyncPolicy fsync;
+    private final Duration fsyncInterval;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition appended = syncLock.newCondition();
+    private final Condition synced = syncLock.newCondition();
+    private final ReentrantLock compactLock = new ReentrantLock();
+
+    // Guarded by appendLock
+    private MappedByteBuffer segment;
+    private long segmentNumber;
+    private volatile long appendedSequence;
+    private volatile long durableSequence;
+    // Appended records whose value the store has not published yet
+    private final ConcurrentSkipListSet<Long> unapplied = new ConcurrentSkipListSet<>();
+    private volatile boolean open;
+    private Thread flusher;
+
+    public FileTodoJournal(TodoJournalProperties properties) {
+        this.directory = properties.directory();
+        this.segmentSize = Math.toIntExact(properties.segmentSize().toBytes());
+        this.fsync = properties.fsync();
+        this.fsyncInterval = properties.fsyncInterval();
+    }
+
+    @Override
+    public void recover(Consumer<StoredTodo> consumer) {
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            long firstSegment = 0;
+            int snapshotCount = 0;
+            Path snapshot = directory.resolve(SNAPSHOT_FILE);
+            if (Files.exists(snapshot)) {
+                ByteBuffer buffer = map(snapshot);
+                if (buffer.getLong() != SNAPSHOT_MAGIC) {
+                    throw new IllegalStateException("Not a todo snapshot: " + snapshot);
+                }
+                firstSegment = buffer.getLong();
+                snapshotCount = TodoRecordCodec.readAll(buffer, consumer);
+            }
+            int logCount = 0;
+            segmentNumber = firstSegment - 1;
+            for (long number : segmentNumbers()) {
+                if (number < firstSegment) {
+                    // Already covered by the snapshot, left behind by an interrupted compaction
+                    Files.delete(segmentPath(number));
+                    continue;
+                }
+                logCount += TodoRecordCodec.readAll(map(segmentPath(number)), consumer);
+                segmentNumber = number;
+            }
+            roll();
+            open = true;
+            if (fsync != FsyncPolicy.NEVER) {
+                flusher = Thread.ofPlatform().daemon().name("todo-journal-flusher").start(this::flushLoop);
+            }
+            log.info("Recovered {} todos from snapshot and {} log records in {} ms", snapshotCount, logCount,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not recover todo journal from " + directory, e);
+        }
+    }
+
+    @Override
+    public long append(StoredTodo todo) {
+        byte[] description = TodoRecordCodec.encodeDescription(todo);
+        int size = TodoRecordCodec.recordSize(todo, description);
+        if (size > segmentSize) {
+            throw new IllegalArgumentException("Todo record of " + size + " bytes does not fit in a journal segment");
+        }
+        long sequence;
+        appendLock.lock();
+        try {
+            if (!open) {
+                throw new IllegalStateException("Todo journal is not open");
+            }
+            if (segment.remaining() < size) {
+                roll();
+            }
+            TodoRecordCodec.write(todo, description, segment);
+            sequence = ++appendedSequence;
+            unapplied.add(sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to todo journal", e);
+        } finally {
+            appendLock.unlock();
+        }
+        if (fsync == FsyncPolicy.ALWAYS) {
+            syncLock.lock();
+            try {
+                appended.signal();
+            } finally {
+                syncLock.unlock();
+            }
+        }
+        return sequence;
+    }
+
+    @Override
+    public void applied(long sequence) {
+        unapplied.remove(sequence);
+    }
+
+    @Override
+    public void awaitDurable(long sequence) {
+        if (fsync != FsyncPolicy.ALWAYS || durableSequence >= sequence) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            while (durableSequence < sequence) {
+                if (!open) {
+                    throw new IllegalStateException("Todo journal closed before the write was forced to disk");
+                }
+                synced.awaitUninterruptibly();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Writes a snapshot of {@code todos} and deletes the log segments it makes redundant. Skipped if a
+     * compaction is already running.
+     *
+     * @param todos supplies every current todo to the given consumer
+     * @return number of todos in the snapshot, or -1 if skipped
+     */
+    public int compact(Consumer<Consumer<StoredTodo>> todos) {
+        if (!compactLock.tryLock()) {
+            return -1;
+        }
+        try {
+            long firstSegment;
+            long rolledAfter;
+            appendLock.lock();
+            try {
+                // Every write from here on lands in the new segment
+                roll();
+                firstSegment = segmentNumber;
+                rolledAfter = appendedSequence;
+            } finally {
+                appendLock.unlock();
+            }
+            // Writes append before they publish, so wait until every earlier one is visible in the store; the
+            // snapshot plus the new segments then hold the full state
+            while (!unapplied.isEmpty() && unapplied.first() <= rolledAfter) {
+                LockSupport.parkNanos(UNAPPLIED_POLL_NANOS);
+            }
+            int count = writeSnapshot(firstSegment, todos);
+            for (long number : segmentNumbers()) {
+                if (number < firstSegment) {
+                    Files.delete(segmentPath(number));
+                }
+            }
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not compact todo journal", e);
+        } finally {
+            compactLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        appendLock.lock();
+        try {
+            if (!open) {
+                return;
+            }
+            open = false;
+            segment.force();
+        } finally {
+            appendLock.unlock();
+        }
+        syncLock.lock();
+        try {
+            durableSequence = appendedSequence;
+            appended.signalAll();
+            synced.signalAll();
+        } finally {
+            syncLock.unlock();
+        }
+        if (flusher != null) {
+            flusher.interrupt();
+        }
+    }
+
+    private void flushLoop() {
+        while (open) {
+            syncLock.lock();
+            try {
+                if (fsync == FsyncPolicy.ALWAYS) {
+                    while (open && appendedSequence == durableSequence) {
+                        appended.awaitUninterruptibly();
+                    }
+                } else {
+                    appended.await(fsyncInterval.toNanos(), TimeUnit.NANOSECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                syncLock.unlock();
+            }
+            flush();
+        }
+    }
+
+    private void flush() {
+        long target;
+        MappedByteBuffer current;
+        appendLock.lock();
+        try {
+            target = appendedSequence;
+            current = segment;
+        } finally {
+            appendLock.unlock();
+        }
+        if (target == durableSequence) {
+            return;
+        }
+        // Earlier segments were forced when they were rolled, so forcing this one covers every record up to target
+        current.force();
+        syncLock.lock();
+        try {
+            durableSequence = Math.max(durableSequence, target);
+            synced.signalAll();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // Called with appendLock held, or during recovery
+    private void roll() throws IOException {
+        if (segment != null && fsync != FsyncPolicy.NEVER) {
+            segment.force();
+        }
+        segmentNumber++;
+        try (FileChannel channel = FileChannel.open(segmentPath(segmentNumber), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private int writeSnapshot(long firstSegment, Consumer<Consumer<StoredTodo>> todos) throws IOException {
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        int[] count = {0};
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_BUFFER_SIZE);
+            buffer.putLong(SNAPSHOT_MAGIC).putLong(firstSegment);
+            todos.accept(todo -> {
+                byte[] description = TodoRecordCodec.encodeDescription(todo);
+                int size = TodoRecordCodec.recordSize(todo, description);
+                if (buffer.remaining() < size) {
+                    writeFully(channel, buffer);
+                }
+                ByteBuffer target = size > buffer.capacity() ? ByteBuffer.allocate(size) : buffer;
+                TodoRecordCodec.write(todo, description, target);
+                if (target != buffer) {
+                    writeFully(channel, target);
+                }
+                count[0]++;
+            });
+            writeFully(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        return count[0];
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    private List<Long> segmentNumbers() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name, SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length(), 10))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    private static ByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.srinath.todoservice.repositories;
+
+import com.srinath.todoservice.dtos.TodoChange;
+import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.dtos.TodoDue;
+import com.srinath.todoservice.dtos.TodoIdRange;
+import com.srinath.todoservice.enums.TodoStatus;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Todo storage used when {@code todo.storage=memory}. Todos are kept as immutable values in a map by id,
+ * with two skip-list indexes matching the table indexes: (status, dueDate, id) for status pages and the
+ * past-due sweep, and (dueDate, id) for listing everything.
+ * <p>
+ * Writes to one todo are serialized by a striped lock. A write adds the new index key before publishing the
+ * new value and removes the old key after, so index scans never miss a todo; keys that no longer match the
+ * stored value are skipped. Due dates never change, so a todo cannot move within one index range.
+ * <p>
+ * Every write also gets a change sequence number for delta sync. Numbers start from the clock in microseconds
+ * rather than from 1, so they keep increasing across restarts; todos restored at startup get new numbers and
+ * are sent to syncing clients once more. A number is indexed a moment after it is taken, so writers can finish
+ * out of order; sync reads no further than just below the oldest number still being indexed, so a client's
+ * token never passes a change it has not seen.
+ * <p>
+ * When a {@link TodoJournal} is configured, the store is rebuilt from it at startup and every write is appended
+ * to it under the todo's lock, so the journal sees each todo's values in the order they were stored. The append
+ * comes before the value is published, so a write the journal rejects leaves the store as it was and readers
+ * never see a value that was not journaled; the journal is told once the value is published, so compaction
+ * never snapshots the store while a journaled write is missing from it. The write returns once the journal
+ * reports the record durable.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.storage", havingValue = "memory")
+public class InMemoryTodoStore {
+
+    private static final UUID MIN_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+    private static final UUID MAX_ID = new UUID(Long.MAX_VALUE, Long.MAX_VALUE);
+    private static final int LOCK_STRIPES = 256;
+
+    private final ConcurrentHashMap<UUID, StoredTodo> todos = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<IndexKey> byStatusAndDueDate = new ConcurrentSkipListSet<>(
+            Comparator.comparing(IndexKey::status).thenComparing(IndexKey::dueDate).thenComparing(IndexKey::id));
+    private final ConcurrentSkipListSet<IndexKey> byDueDate = new ConcurrentSkipListSet<>(
+            Comparator.comparing(IndexKey::dueDate).thenComparing(IndexKey::id));
+    // Change sequence number -> id, and the current number of each todo; older numbers are dropped on write
+    private final ConcurrentSkipListMap<Long, UUID> byChangeSeq = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<UUID, Long> changeSeqs = new ConcurrentHashMap<>();
+    // Numbers taken but not indexed yet. Guarded by changeSeqLock, together with lastChangeSeq
+    private final NavigableSet<Long> pendingChangeSeqs = new TreeSet<>();
+    private final ReentrantLock changeSeqLock = new ReentrantLock();
+    private long lastChangeSeq;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final TodoJournal journal;
+
+    public InMemoryTodoStore() {
+        this(TodoJournal.NONE);
+    }
+
+    @Autowired
+    public InMemoryTodoStore(ObjectProvider<TodoJournal> journal) {
+        this(journal.getIfAvailable(() -> TodoJournal.NONE));
+    }
+
+    public InMemoryTodoStore(TodoJournal journal) {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.journal = journal;
+        journal.recover(this::restore);
+    }
+
+    public Optional<StoredTodo> findById(UUID id) {
+        return Optional.ofNullable(todos.get(id));
+    }
+
+    public StoredTodo insert(StoredTodo todo) {
+        ReentrantLock lock = lockFor(todo.id());
+        long sequence;
+        lock.lock();
+        try {
+            sequence = journal.append(todo);
+            try {
+                byStatusAndDueDate.add(IndexKey.of(todo));
+                byDueDate.add(new IndexKey(null, todo.dueDate(), todo.id()));
+                todos.put(todo.id(), todo);
+                recordChange(todo.id());
+            } finally {
+                journal.applied(sequence);
+            }
+        } finally {
+            lock.unlock();
+        }
+        journal.awaitDurable(sequence);
+        return todo;
+    }
+
+    /**
+     * Applies {@code change} to the current value while holding the todo's lock. Returning the value unchanged
+     * skips the write; otherwise the version is incremented. Exceptions thrown by {@code change} or by the
+     * journal append propagate and leave the todo as it was.
+     */
+    public Optional<Update> update(UUID id, UnaryOperator<StoredTodo> change) {
+        ReentrantLock lock = lockFor(id);
+        Update update;
+        long sequence;
+        lock.lock();
+        try {
+            StoredTodo current = todos.get(id);
+            if (current == null) {
+                return Optional.empty();
+            }
+            StoredTodo changed = change.apply(current);
+            if (changed == current) {
+                return Optional.of(new Update(current, current));
+            }
+            StoredTodo updated = changed.withVersion(current.version() + 1);
+            sequence = journal.append(updated);
+            try {
+                IndexKey currentKey = IndexKey.of(current);
+                IndexKey updatedKey = IndexKey.of(updated);
+                byStatusAndDueDate.add(updatedKey);
+                todos.put(id, updated);
+                if (!currentKey.equals(updatedKey)) {
+                    byStatusAndDueDate.remove(currentKey);
+                }
+                recordChange(id);
+            } finally {
+                journal.applied(sequence);
+            }
+            update = new Update(current, updated);
+        } finally {
+            lock.unlock();
+        }
+        journal.awaitDurable(sequence);
+        return Optional.of(update);
+    }
+
+    public List<StoredTodo> findByStatus(TodoStatus status, LocalDateTime afterDueDate, UUID afterId, int limit) {
+        IndexKey from = afterDueDate == null ? new IndexKey(status, LocalDateTime.MIN, MIN_ID)
+                : new IndexKey(status, afterDueDate, afterId);
+        return scan(byStatusAndDueDate.subSet(from, afterDueDate == null,
+                new IndexKey(status, LocalDateTime.MAX, MAX_ID), true), limit);
+    }
+
+    public List<StoredTodo> findByStatusDueFrom(TodoStatus status, LocalDateTime dueFrom, int limit) {
+        return scan(byStatusAndDueDate.subSet(new IndexKey(status, dueFrom, MIN_ID), true,
+                new IndexKey(status, LocalDateTime.MAX, MAX_ID), true), limit);
+    }
+
+    public List<StoredTodo> findAll(LocalDateTime afterDueDate, UUID afterId, int limit) {
+        return scan(afterDueDate == null ? byDueDate
+                : byDueDate.tailSet(new IndexKey(null, afterDueDate, afterId), false), limit);
+    }
+
+    public List<TodoDue> findDueByStatusAndDueDateBefore(TodoStatus status, LocalDateTime dueBefore,
+                                                         TodoIdRange range, int limit) {
+        return scan(byStatusAndDueDate.subSet(new IndexKey(status, LocalDateTime.MIN, MIN_ID), true,
+                new IndexKey(status, dueBefore, MIN_ID), false), todo -> range.contains(todo.id()), limit)
+                .stream().map(StoredTodo::toDue).toList();
+    }
+
+    public List<TodoDue> findDueByStatusAndDueDateBetween(TodoStatus status, LocalDateTime dueFrom,
+                                                          LocalDateTime dueBefore) {
+        return scan(byStatusAndDueDate.subSet(new IndexKey(status, dueFrom, MIN_ID), true,
+                new IndexKey(status, dueBefore, MIN_ID), false), Integer.MAX_VALUE)
+                .stream().map(StoredTodo::toDue).toList();
+    }
+
+    public long countByStatusAndDueDateBefore(TodoStatus status, LocalDateTime dueBefore) {
+        long count = 0;
+        for (IndexKey key : byStatusAndDueDate.subSet(new IndexKey(status, LocalDateTime.MIN, MIN_ID), true,
+                new IndexKey(status, dueBefore, MIN_ID), false)) {
+            StoredTodo todo = todos.get(key.id());
+            if (todo != null && key.matches(todo)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Todos whose latest write has a change sequence number above {@code afterChangeSeq}, in number order.
+     */
+    public List<TodoChange> findChangesAfter(long afterChangeSeq, int limit) {
+        List<TodoChange> result = new ArrayList<>(Math.min(limit, 64));
+        long upTo = safeChangeSeq();
+        if (upTo <= afterChangeSeq) {
+            return result;
+        }
+        for (Map.Entry<Long, UUID> entry : byChangeSeq.subMap(afterChangeSeq, false, upTo, true).entrySet()) {
+            if (result.size() == limit) {
+                break;
+            }
+            StoredTodo todo = todos.get(entry.getValue());
+            if (todo != null && entry.getKey().equals(changeSeqs.get(todo.id()))) {
+                result.add(new TodoChange(entry.getKey(), todo.toDetails()));
+            }
+        }
+        return result;
+    }
+
+    // Ordered by due date, like the JPA export
+    public void forEach(Consumer<StoredTodo> consumer) {
+        for (IndexKey key : byDueDate) {
+            StoredTodo todo = todos.get(key.id());
+            if (todo != null) {
+                consumer.accept(todo);
+            }
+        }
+    }
+
+    public int size() {
+        return todos.size();
+    }
+
+    // Replays a journaled value during startup, before the store is shared
+    private void restore(StoredTodo todo) {
+        StoredTodo current = todos.get(todo.id());
+        if (current != null && current.version() > todo.version()) {
+            return;
+        }
+        if (current != null) {
+            byStatusAndDueDate.remove(IndexKey.of(current));
+        } else {
+            byDueDate.add(new IndexKey(null, todo.dueDate(), todo.id()));
+        }
+        byStatusAndDueDate.add(IndexKey.of(todo));
+        todos.put(todo.id(), todo);
+        recordChange(todo.id());
+    }
+
+    // Runs after the new value is stored. The new number is indexed before the old one is dropped, so a
+    // concurrent reader sees the todo under one of them.
+    private void recordChange(UUID id) {
+        long changeSeq;
+        changeSeqLock.lock();
+        try {
+            changeSeq = Math.max(lastChangeSeq + 1, System.currentTimeMillis() * 1000);
+            lastChangeSeq = changeSeq;
+            pendingChangeSeqs.add(changeSeq);
+        } finally {
+            changeSeqLock.unlock();
+        }
+        try {
+            byChangeSeq.put(changeSeq, id);
+            Long previous = changeSeqs.put(id, changeSeq);
+            if (previous != null) {
+                byChangeSeq.remove(previous);
+            }
+        } finally {
+            changeSeqLock.lock();
+            try {
+                pendingChangeSeqs.remove(changeSeq);
+            } finally {
+                changeSeqLock.unlock();
+            }
+        }
+    }
+
+    // Highest number below which every change is indexed
+    private long safeChangeSeq() {
+        changeSeqLock.lock();
+        try {
+            return pendingChangeSeqs.isEmpty() ? lastChangeSeq : pendingChangeSeqs.first() - 1;
+        } finally {
+            changeSeqLock.unlock();
+        }
+    }
+
+    private List<StoredTodo> scan(NavigableSet<IndexKey> keys, int limit) {
+        return scan(keys, todo -> true, limit);
+    }
+
+    private List<StoredTodo> scan(NavigableSet<IndexKey> keys, Predicate<StoredTodo> filter, int limit) {
+        List<StoredTodo> result = new ArrayList<>(Math.min(limit, 64));
+        for (IndexKey key : keys) {
+            if (result.size() == limit) {
+                break;
+            }
+            StoredTodo todo = todos.get(key.id());
+            if (todo != null && key.matches(todo) && filter.test(todo)) {
+                result.add(todo);
+            }
+        }
+        return result;
+    }
+
+    private ReentrantLock lockFor(UUID id) {
+        return locks[Math.floorMod(id.hashCode(), LOCK_STRIPES)];
+    }
+
+    public record StoredTodo(UUID id, String description, TodoStatus status, LocalDateTime createdAt,
+                             LocalDateTime dueDate, LocalDateTime completedAt, long version) {
+
+        public StoredTodo withDescription(String description) {
+            return new StoredTodo(id, description, status, createdAt, dueDate, completedAt, version);
+        }
+
+        public StoredTodo withStatus(TodoStatus status, LocalDateTime completedAt) {
+            return new StoredTodo(id, description, status, createdAt, dueDate, completedAt, version);
+        }
+
+        StoredTodo withVersion(long version) {
+            return new StoredTodo(id, description, status, createdAt, dueDate, completedAt, version);
+        }
+
+        public TodoDetails toDetails() {
+            return new TodoDetails(id, description, status, createdAt, dueDate, completedAt, version);
+        }
+
+        public TodoDue toDue() {
+            return new TodoDue(id, dueDate);
+        }
+    }
+
+    public record Update(StoredTodo before, StoredTodo after) {
+
+        public boolean changed() {
+            return before != after;
+        }
+    }
+
+    // The status is null for keys of the due date index, which ignores it
+    private record IndexKey(TodoStatus status, LocalDateTime dueDate, UUID id) {
+
+        static IndexKey of(StoredTodo todo) {
+            return new IndexKey(todo.status(), todo.dueDate(), todo.id());
+        }
+
+        boolean matches(StoredTodo todo) {
+            return (status == null || status == todo.status()) && dueDate.equals(todo.dueDate());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.srinath.todoservice.repositories;
+
+import com.srinath.todoservice.entities.SweepLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface SweepLeaseRepository extends JpaRepository<SweepLease, String> {
+
+    // A single conditional update, so two nodes can never both see the lease as free
+    @Transactional
+    @Modifying
+    @Query("update SweepLease l set l.owner = :owner, l.lockedUntil = :lockedUntil " +
+            "where l.name = :name and l.lockedUntil < :now and (l.sweptAt is null or l.sweptAt < :sweptBefore)")
+    int acquire(String name, String owner, LocalDateTime now, LocalDateTime lockedUntil, LocalDateTime sweptBefore);
+
+    @Transactional
+    @Modifying
+    @Query("update SweepLease l set l.lockedUntil = :now, l.sweptAt = :now where l.name = :name and l.owner = :owner")
+    int releaseSwept(String name, String owner, LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update SweepLease l set l.lockedUntil = :now where l.name = :name and l.owner = :owner")
+    int release(String name, String owner, LocalDateTime now);
+}
@@ -0,0 +1,52 @@
+package com.srinath.todoservice.repositories;
+
+import com.srinath.todoservice.repositories.InMemoryTodoStore.StoredTodo;
+
+import java.util.function.Consumer;
+
+/**
+ * Durable record of the writes made to {@link InMemoryTodoStore}.
+ */
+public interface TodoJournal {
+
+    // Used when no journal is configured: todos live only in memory
+    TodoJournal NONE = new TodoJournal() {
+        @Override
+        public void recover(Consumer<StoredTodo> consumer) {
+        }
+
+        @Override
+        public long append(StoredTodo todo) {
+            return 0;
+        }
+
+        @Override
+        public void awaitDurable(long sequence) {
+        }
+    };
+
+    /**
+     * Replays every todo recorded so far, oldest first, and prepares the journal for appends. Called once
+     * before the first append. A todo can be replayed several times; its highest version wins.
+     */
+    void recover(Consumer<StoredTodo> consumer);
+
+    /**
+     * Records the new value of a todo.
+     *
+     * @return sequence number to pass to {@link #awaitDurable(long)}
+     */
+    long append(StoredTodo todo);
+
+    /**
+     * Tells the journal the value appended under {@code sequence} is now visible in the store, or that its write
+     * failed. Compaction waits for this before taking a snapshot.
+     */
+    default void applied(long sequence) {
+    }
+
+    /**
+     * Blocks until the record with the given sequence number is durable under the configured policy.
+     */
+    void awaitDurable(long sequence);
+}
@@ -0,0 +1,110 @@
+package com.srinath.todoservice.repositories;
+
+import com.srinath.todoservice.enums.TodoStatus;
+import com.srinath.todoservice.repositories.InMemoryTodoStore.StoredTodo;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary framing shared by journal segments and snapshots. Each record is
+ * {@code [int body length][int CRC32C of body][body]} and holds the full todo, so replaying records in
+ * order always ends at the latest value. A zero length or a checksum mismatch marks the end of the
+ * valid data, e.g. the unused tail of a segment or a record torn by a crash.
+ */
+final class TodoRecordCodec {
+
+    static final int HEADER_SIZE = Integer.BYTES * 2;
+
+    private static final int DATE_SIZE = Long.BYTES + Integer.BYTES;
+    // id, status, version, createdAt, dueDate, completedAt flag, description length
+    private static final int FIXED_BODY_SIZE = Long.BYTES * 2 + 1 + Long.BYTES + DATE_SIZE * 2 + 1 + Integer.BYTES;
+
+    private TodoRecordCodec() {
+    }
+
+    static byte[] encodeDescription(StoredTodo todo) {
+        return todo.description().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static int recordSize(StoredTodo todo, byte[] description) {
+        return HEADER_SIZE + FIXED_BODY_SIZE + (todo.completedAt() == null ? 0 : DATE_SIZE) + description.length;
+    }
+
+    static void write(StoredTodo todo, byte[] description, ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.position(start + HEADER_SIZE);
+        buffer.putLong(todo.id().getMostSignificantBits());
+        buffer.putLong(todo.id().getLeastSignificantBits());
+        buffer.put((byte) todo.status().ordinal());
+        buffer.putLong(todo.version());
+        putDate(buffer, todo.createdAt());
+        putDate(buffer, todo.dueDate());
+        buffer.put((byte) (todo.completedAt() == null ? 0 : 1));
+        if (todo.completedAt() != null) {
+            putDate(buffer, todo.completedAt());
+        }
+        buffer.putInt(description.length);
+        buffer.put(description);
+        int end = buffer.position();
+
+        int bodyLength = end - start - HEADER_SIZE;
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start + HEADER_SIZE, bodyLength));
+        buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+        buffer.putInt(start, bodyLength);
+    }
+
+    /**
+     * Reads records from the buffer's position until the end of the valid data.
+     *
+     * @return number of records read
+     */
+    static int readAll(ByteBuffer buffer, Consumer<StoredTodo> consumer) {
+        int count = 0;
+        while (buffer.remaining() >= HEADER_SIZE) {
+            int start = buffer.position();
+            int bodyLength = buffer.getInt(start);
+            if (bodyLength < FIXED_BODY_SIZE || bodyLength > buffer.remaining() - HEADER_SIZE) {
+                break;
+            }
+            ByteBuffer body = buffer.slice(start + HEADER_SIZE, bodyLength);
+            CRC32C crc = new CRC32C();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(start + Integer.BYTES)) {
+                break;
+            }
+            consumer.accept(read(body));
+            buffer.position(start + HEADER_SIZE + bodyLength);
+            count++;
+        }
+        return count;
+    }
+
+    private static StoredTodo read(ByteBuffer body) {
+        UUID id = new UUID(body.getLong(), body.getLong());
+        TodoStatus status = TodoStatus.values()[body.get()];
+        long version = body.getLong();
+        LocalDateTime createdAt = getDate(body);
+        LocalDateTime dueDate = getDate(body);
+        LocalDateTime completedAt = body.get() == 0 ? null : getDate(body);
+        byte[] description = new byte[body.getInt()];
+        body.get(description);
+        return new StoredTodo(id, new String(description, StandardCharsets.UTF_8), status, createdAt, dueDate,
+                completedAt, version);
+    }
+
+    private static void putDate(ByteBuffer buffer, LocalDateTime date) {
+        buffer.putLong(date.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(date.getNano());
+    }
+
+    private static LocalDateTime getDate(ByteBuffer buffer) {
+        return LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+    }
+}
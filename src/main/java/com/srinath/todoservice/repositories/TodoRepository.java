@@ -1,16 +1,134 @@
 package com.srinath.todoservice.repositories;
 
+import com.srinath.todoservice.configs.CacheConfig;
+import com.srinath.todoservice.dtos.TodoChange;
+import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.dtos.TodoDue;
+import com.srinath.todoservice.dtos.TodoStatusCount;
 import com.srinath.todoservice.entities.Todo;
 import com.srinath.todoservice.enums.TodoStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface TodoRepository  extends JpaRepository<Todo, UUID> {
 
-    List<Todo> findAllByStatusOrderByDueDateAsc(TodoStatus status);
-    List<Todo> findAllByOrderByDueDateAsc();
-    List<Todo> findAllByDueDateBeforeAndStatusNot(LocalDateTime localDateTime, TodoStatus todoStatus);
+    // Reads project straight into TodoDetails, so no managed entities or dirty-checking snapshots are created
+    String SELECT_DETAILS = "select new com.srinath.todoservice.dtos.TodoDetails(t.id, t.description, t.status, " +
+            "t.createdAt, t.dueDate, t.completedAt, t.version) from Todo t ";
+    String ORDER_BY_DUE_DATE = " order by t.dueDate asc, t.id asc";
+
+    // Cached as stored, so a status derived from the due date is worked out again on every read. Loaded under
+    // the entry's lock, so a change committed during the load replaces what it read (see TodoCacheSynchronizer).
+    // A miss is cached as well, until a create replaces it.
+    @Cacheable(cacheNames = CacheConfig.TODOS_CACHE, key = "#id", sync = true)
+    @Query(SELECT_DETAILS + "where t.id = :id")
+    Optional<TodoDetails> findDetailsById(UUID id);
+
+    @Query(SELECT_DETAILS + "where t.id in :ids")
+    List<TodoDetails> findDetailsByIdIn(Collection<UUID> ids);
+
+    @Query(SELECT_DETAILS + "where t.status = :status" + ORDER_BY_DUE_DATE)
+    List<TodoDetails> findAllDetailsByStatus(TodoStatus status);
+
+    // With past due derived, a not done todo stops being listed at its due date: a range on the same index
+    @Query(SELECT_DETAILS + "where t.status = :status and t.dueDate >= :dueFrom" + ORDER_BY_DUE_DATE)
+    List<TodoDetails> findAllDetailsByStatusDueFrom(TodoStatus status, LocalDateTime dueFrom);
+
+    @Query(SELECT_DETAILS + ORDER_BY_DUE_DATE)
+    List<TodoDetails> findAllDetails();
+
+    // Keyset pagination over (dueDate, id). The first page has no cursor to seek past.
+    @Query(SELECT_DETAILS + "where t.status = :status" + ORDER_BY_DUE_DATE)
+    List<TodoDetails> findDetailsByStatus(TodoStatus status, Limit limit);
+
+    @Query(SELECT_DETAILS + "where t.status = :status and t.dueDate >= :dueFrom" + ORDER_BY_DUE_DATE)
+    List<TodoDetails> findDetailsByStatusDueFrom(TodoStatus status, LocalDateTime dueFrom, Limit limit);
+
+    // "dueDate >= :dueDate" is redundant logically but gives the index a range start to seek to
+    @Query(SELECT_DETAILS + "where t.status = :status and t.dueDate >= :dueDate " +
+            "and (t.dueDate > :dueDate or t.id > :id)" + ORDER_BY_DUE_DATE)
+    List<TodoDetails> findDetailsByStatusAfter(TodoStatus status, LocalDateTime dueDate, UUID id, Limit limit);
+
+    @Query(SELECT_DETAILS + ORDER_BY_DUE_DATE)
+    List<TodoDetails> findDetails(Limit limit);
+
+    @Query(SELECT_DETAILS + "where t.dueDate >= :dueDate " +
+            "and (t.dueDate > :dueDate or t.id > :id)" + ORDER_BY_DUE_DATE)
+    List<TodoDetails> findDetailsAfter(LocalDateTime dueDate, UUID id, Limit limit);
+
+    // Delta sync. A todo changed again since the token only shows up once, at its latest sequence number.
+    // Numbers are taken when a row is written, not when it commits, so reads stop at a number every earlier
+    // writer is known to have committed by (see ChangeSeqWatermark).
+    @Query("select new com.srinath.todoservice.dtos.TodoChange(t.changeSeq, t.id, t.description, t.status, " +
+            "t.createdAt, t.dueDate, t.completedAt, t.version, false) from Todo t " +
+            "where t.changeSeq > :afterChangeSeq and t.changeSeq <= :upToChangeSeq order by t.changeSeq asc")
+    List<TodoChange> findChangesAfter(long afterChangeSeq, long upToChangeSeq, Limit limit);
+
+    // Read from the end of the change sequence index
+    @Query("select max(t.changeSeq) from Todo t")
+    Long findMaxChangeSeq();
+
+    // Answered from the status index alone; statuses without todos are left out
+    @Query("select new com.srinath.todoservice.dtos.TodoStatusCount(t.status, count(t)) from Todo t group by t.status")
+    List<TodoStatusCount> countGroupedByStatus();
+
+    // Must be consumed inside a transaction and closed by the caller
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_DETAILS + ORDER_BY_DUE_DATE)
+    Stream<TodoDetails> streamAllDetails();
+
+    @Query("select new com.srinath.todoservice.dtos.TodoDue(t.id, t.dueDate) from Todo t " +
+            "where t.status = :status and t.dueDate < :dueBefore order by t.dueDate asc")
+    List<TodoDue> findDueByStatusAndDueDateBefore(TodoStatus status, LocalDateTime dueBefore, Limit limit);
+
+    @Query("select new com.srinath.todoservice.dtos.TodoDue(t.id, t.dueDate) from Todo t " +
+            "where t.status = :status and t.dueDate < :dueBefore and t.id >= :firstId and t.id <= :lastId " +
+            "order by t.dueDate asc")
+    List<TodoDue> findDueByStatusAndDueDateBeforeInRange(TodoStatus status, LocalDateTime dueBefore,
+                                                         UUID firstId, UUID lastId, Limit limit);
+
+    @Query("select new com.srinath.todoservice.dtos.TodoDue(t.id, t.dueDate) from Todo t " +
+            "where t.status = :status and t.dueDate >= :dueFrom and t.dueDate < :dueBefore order by t.dueDate asc")
+    List<TodoDue> findDueByStatusAndDueDateBetween(TodoStatus status, LocalDateTime dueFrom, LocalDateTime dueBefore);
+
+    @Query("select new com.srinath.todoservice.dtos.TodoDue(t.id, t.dueDate) from Todo t " +
+            "where t.id in :ids and t.status = :status")
+    List<TodoDue> findDueByIdInAndStatus(Collection<UUID> ids, TodoStatus status);
+
+    long countByStatusAndDueDateBefore(TodoStatus status, LocalDateTime dueBefore);
+
+    // Re-checks status and due date so rows changed since they were selected are left alone
+    @Transactional
+    @Modifying
+    @Query("update Todo t set t.status = :to, t.version = t.version + 1 " +
+            "where t.id in :ids and t.status = :from and t.dueDate < :dueBefore")
+    int updateStatusOfDueTodos(Collection<UUID> ids, TodoStatus from, TodoStatus to, LocalDateTime dueBefore);
+
+    // Cleared afterwards so reads in the same transaction see the new state
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Todo t set t.status = :to, t.completedAt = :completedAt, t.version = t.version + 1 " +
+            "where t.id in :ids and t.status = :from and t.dueDate >= :notDueBefore")
+    int updateStatusOfTodosNotDue(Collection<UUID> ids, TodoStatus from, TodoStatus to, LocalDateTime completedAt,
+                                  LocalDateTime notDueBefore);
+
+    // Second half of archiving: only todos already copied to the archive are deleted
+    @Transactional
+    @Modifying
+    @Query("delete from Todo t where t.id in :ids and exists (select 1 from ArchivedTodo a where a.id = t.id)")
+    int deleteArchived(Collection<UUID> ids);
 }
@@ -0,0 +1,297 @@
+package com.srinath.todoservice.repositories;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over todo descriptions. Descriptions are split into lower-cased words; each word
+ * maps to the todos containing it, shortest description first, and a sorted dictionary of all words answers
+ * prefix lookups.
+ * <p>
+ * A search matches todos containing every query word, either as a whole word or as the start of one. Scores add
+ * up the rarity (idf) of the matched words, halved for prefix matches, and divide by the square root of the
+ * description's word count. Matching walks the todos of the query word with the fewest todos, shortest first,
+ * so no todo further on can score above the best one the query could reach divided by its own length; the walk
+ * stops once the page is full of hits scoring above that. At most {@code maxCandidates} todos are scored per
+ * search. A query that reaches that cap is ranked over the {@code maxCandidates} shortest todos matching its
+ * rarest word only: an approximation, but the same todos every time, so pages of an unchanged index never overlap.
+ * <p>
+ * Each todo is indexed with its version so an older description arriving late, e.g. from the startup build,
+ * never replaces a newer one.
+ */
+public class TodoSearchIndex {
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_WORD_LENGTH = 32;
+    // Caps the dictionary range one short query word can expand to
+    private static final int MAX_PREFIX_EXPANSIONS = 256;
+    private static final double PREFIX_MATCH_WEIGHT = 0.5;
+
+    private final ConcurrentHashMap<UUID, Document> documents = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Postings> postings = new ConcurrentHashMap<>();
+    // Only changed inside postings.compute for the same word, so it always matches the postings keys
+    private final ConcurrentSkipListSet<String> dictionary = new ConcurrentSkipListSet<>();
+    private final int maxCandidates;
+
+    public TodoSearchIndex(int maxCandidates) {
+        this.maxCandidates = maxCandidates;
+    }
+
+    public static List<String> tokenize(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(word.length() > MAX_WORD_LENGTH ? word.substring(0, MAX_WORD_LENGTH) : word);
+            }
+        }
+        return List.copyOf(words);
+    }
+
+    public void index(UUID id, String description, long version) {
+        documents.compute(id, (key, current) -> {
+            if (current != null && current.version() >= version) {
+                return current;
+            }
+            String[] words = tokenize(description).toArray(String[]::new);
+            // Postings are ordered by length, so a new length moves the todo in every one of them
+            boolean sameLength = current != null && current.words().length == words.length;
+            Set<String> previous = current == null ? Set.of() : Set.of(current.words());
+            Set<String> next = Set.of(words);
+            previous.stream().filter(word -> !sameLength || !next.contains(word))
+                    .forEach(word -> removePosting(word, new Posting(current.words().length, id)));
+            next.stream().filter(word -> !sameLength || !previous.contains(word))
+                    .forEach(word -> addPosting(word, new Posting(words.length, id)));
+            return new Document(words, version);
+        });
+    }
+
+    public void remove(UUID id) {
+        documents.computeIfPresent(id, (key, current) -> {
+            for (String word : current.words()) {
+                removePosting(word, new Posting(current.words().length, id));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Ids of the best matching todos, best first, skipping {@code offset} and returning at most {@code limit}.
+     * Exact unless more than {@code maxCandidates} todos have to be scored, in which case only the shortest
+     * {@code maxCandidates} todos matching the query's rarest word are ranked.
+     */
+    public List<UUID> search(String query, int offset, int limit) {
+        List<QueryWord> queryWords = tokenize(query).stream().map(this::expand).toList();
+        if (queryWords.isEmpty() || queryWords.stream().anyMatch(word -> word.matches().isEmpty())) {
+            return List.of();
+        }
+        QueryWord driver = queryWords.stream().min(Comparator.comparingLong(QueryWord::todoCount)).orElseThrow();
+        Map<String, Double> idfs = new HashMap<>();
+        double todoCount = documents.size();
+        double bestPossible = queryWords.stream().mapToDouble(word -> bestWordScore(word, todoCount, idfs)).sum();
+        Comparator<Hit> ranking = Comparator.comparingDouble(Hit::score).reversed().thenComparing(Hit::id);
+        // Worst of the kept hits at the head, so it is the one dropped when a better hit arrives
+        PriorityQueue<Hit> best = new PriorityQueue<>(ranking.reversed());
+        Set<UUID> seen = new HashSet<>();
+        // Merges the postings of every word the driver expanded to, keeping them shortest first
+        PriorityQueue<PostingCursor> cursors = new PriorityQueue<>(Comparator.comparing(PostingCursor::current));
+        for (String word : driver.matches()) {
+            Postings wordPostings = postings.get(word);
+            if (wordPostings != null) {
+                PostingCursor cursor = new PostingCursor(wordPostings.todos().iterator());
+                if (cursor.advance()) {
+                    cursors.add(cursor);
+                }
+            }
+        }
+        while (!cursors.isEmpty() && seen.size() < maxCandidates) {
+            PostingCursor cursor = cursors.poll();
+            Posting posting = cursor.current();
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+            if (best.size() == offset + limit && best.peek().score() > bestPossible / Math.sqrt(posting.length())) {
+                break;
+            }
+            if (!seen.add(posting.id())) {
+                continue;
+            }
+            Document document = documents.get(posting.id());
+            double score = document == null ? 0 : score(document, queryWords, todoCount, idfs);
+            if (score > 0) {
+                best.add(new Hit(posting.id(), score));
+                if (best.size() > offset + limit) {
+                    best.poll();
+                }
+            }
+        }
+        List<Hit> ranked = new ArrayList<>(best);
+        ranked.sort(ranking);
+        return ranked.stream().skip(offset).map(Hit::id).toList();
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    private QueryWord expand(String queryWord) {
+        List<String> matches = new ArrayList<>();
+        long todoCount = 0;
+        Iterable<String> words = queryWord.length() < MIN_PREFIX_LENGTH
+                ? dictionary.contains(queryWord) ? List.of(queryWord) : List.of()
+                : dictionary.subSet(queryWord, true, queryWord + Character.MAX_VALUE, true);
+        for (String word : words) {
+            if (matches.size() == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            matches.add(word);
+            Postings wordPostings = postings.get(word);
+            todoCount += wordPostings == null ? 0 : wordPostings.size();
+        }
+        boolean truncated = matches.size() == MAX_PREFIX_EXPANSIONS;
+        return new QueryWord(queryWord, matches, todoCount, truncated);
+    }
+
+    // The most one query word can add to a todo's score before the length is divided out
+    private double bestWordScore(QueryWord queryWord, double todoCount, Map<String, Double> idfs) {
+        if (queryWord.truncated()) {
+            // Words past the expansion cap still count when scoring, and the rarest word possible has one todo
+            return Math.log(1 + todoCount / 2);
+        }
+        double best = 0;
+        for (String word : queryWord.matches()) {
+            double weight = word.equals(queryWord.text()) ? 1 : PREFIX_MATCH_WEIGHT;
+            best = Math.max(best, weight * idf(word, todoCount, idfs));
+        }
+        return best;
+    }
+
+    // Zero unless every query word matches one of the document's words
+    private double score(Document document, List<QueryWord> queryWords, double todoCount, Map<String, Double> idfs) {
+        double score = 0;
+        for (QueryWord queryWord : queryWords) {
+            double wordScore = 0;
+            for (String word : document.words()) {
+                if (word.equals(queryWord.text())) {
+                    wordScore = Math.max(wordScore, idf(word, todoCount, idfs));
+                } else if (queryWord.text().length() >= MIN_PREFIX_LENGTH && word.startsWith(queryWord.text())) {
+                    wordScore = Math.max(wordScore, PREFIX_MATCH_WEIGHT * idf(word, todoCount, idfs));
+                }
+            }
+            if (wordScore == 0) {
+                return 0;
+            }
+            score += wordScore;
+        }
+        return score / Math.sqrt(document.words().length);
+    }
+
+    private double idf(String word, double todoCount, Map<String, Double> idfs) {
+        return idfs.computeIfAbsent(word, key -> {
+            Postings wordPostings = postings.get(key);
+            return Math.log(1 + todoCount / (1 + (wordPostings == null ? 0 : wordPostings.size())));
+        });
+    }
+
+    private void addPosting(String word, Posting posting) {
+        postings.compute(word, (key, wordPostings) -> {
+            if (wordPostings == null) {
+                wordPostings = new Postings();
+                dictionary.add(key);
+            }
+            wordPostings.add(posting);
+            return wordPostings;
+        });
+    }
+
+    private void removePosting(String word, Posting posting) {
+        postings.computeIfPresent(word, (key, wordPostings) -> {
+            wordPostings.remove(posting);
+            if (wordPostings.size() == 0) {
+                dictionary.remove(key);
+                return null;
+            }
+            return wordPostings;
+        });
+    }
+
+    private record Document(String[] words, long version) {
+    }
+
+    // Todos containing one word, shortest description first. Changed only inside postings.compute for that word,
+    // so the count is kept alongside instead of walking the set to size it
+    private static final class Postings {
+
+        private final ConcurrentSkipListSet<Posting> todos = new ConcurrentSkipListSet<>();
+        private volatile int size;
+
+        private ConcurrentSkipListSet<Posting> todos() {
+            return todos;
+        }
+
+        private void add(Posting posting) {
+            if (todos.add(posting)) {
+                size++;
+            }
+        }
+
+        private void remove(Posting posting) {
+            if (todos.remove(posting)) {
+                size--;
+            }
+        }
+
+        private int size() {
+            return size;
+        }
+    }
+
+    private record Posting(int length, UUID id) implements Comparable<Posting> {
+
+        private static final Comparator<Posting> ORDER =
+                Comparator.comparingInt(Posting::length).thenComparing(Posting::id);
+
+        @Override
+        public int compareTo(Posting other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private static final class PostingCursor {
+
+        private final Iterator<Posting> postings;
+        private Posting current;
+
+        private PostingCursor(Iterator<Posting> postings) {
+            this.postings = postings;
+        }
+
+        private boolean advance() {
+            current = postings.hasNext() ? postings.next() : null;
+            return current != null;
+        }
+
+        private Posting current() {
+            return current;
+        }
+    }
+
+    private record QueryWord(String text, List<String> matches, long todoCount, boolean truncated) {
+    }
+
+    private record Hit(UUID id, double score) {
+    }
+}
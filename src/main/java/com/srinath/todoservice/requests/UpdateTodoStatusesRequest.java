@@ -0,0 +1,23 @@
+package com.srinath.todoservice.requests;
+
+import com.srinath.todoservice.enums.TodoStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateTodoStatusesRequest {
+
+    @NotEmpty(message = "Ids cannot be empty")
+    private List<UUID> ids;
+
+    @NotNull(message = "Status cannot be empty")
+    private TodoStatus status;
+}
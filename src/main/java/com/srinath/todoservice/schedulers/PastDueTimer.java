@@ -0,0 +1,149 @@
+package com.srinath.todoservice.schedulers;
+
+import com.srinath.todoservice.configs.PastDueTimerProperties;
+import com.srinath.todoservice.dtos.TodoDue;
+import com.srinath.todoservice.events.TodoChangedEvent;
+import com.srinath.todoservice.events.TodosPastDueEvent;
+import com.srinath.todoservice.services.TodoService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flips NOT_DONE todos to PAST_DUE at their due date instead of waiting for the next sweep.
+ * <p>
+ * Todos due within the configured horizon sit in a due-date ordered delay queue that a single worker
+ * thread waits on. Cancelling only drops the id from {@code scheduled}; the stale queue entry is
+ * skipped when it comes up. The horizon is refilled from the store periodically, and the scheduled
+ * sweep in {@link TodoScheduler} remains as a safety net. It is also what flips todos already overdue when
+ * the timer starts, so the queue only ever holds the todos of one horizon.
+ */
+@Component
+@ConditionalOnProperty(prefix = "todo.past-due-timer", name = "enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnProperty(name = "todo.past-due.mode", havingValue = "stored", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class PastDueTimer {
+
+    private final TodoService todoService;
+    private final PastDueTimerProperties pastDueTimerProperties;
+    private final Environment environment;
+
+    private final DelayQueue<Deadline> deadlines = new DelayQueue<>();
+    private final Map<UUID, LocalDateTime> scheduled = new ConcurrentHashMap<>();
+    private volatile Thread worker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refill();
+        Thread.Builder threadBuilder = Threading.VIRTUAL.isActive(environment) ? Thread.ofVirtual()
+                : Thread.ofPlatform().daemon();
+        worker = threadBuilder.name("past-due-timer").start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @Scheduled(fixedRateString = "${todo.past-due-timer.refill-interval:PT5M}",
+            initialDelayString = "${todo.past-due-timer.refill-interval:PT5M}")
+    public void refill() {
+        // Todos already overdue, e.g. after downtime, can be any number; the chunked sweep flips those
+        LocalDateTime now = LocalDateTime.now();
+        todoService.getNotDoneTodosDueBetween(now, now.plus(pastDueTimerProperties.horizon())).forEach(this::schedule);
+    }
+
+    @EventListener
+    public void onTodoChanged(TodoChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, MARKED_NOT_DONE -> {
+                LocalDateTime dueDate = event.todo().dueDate();
+                if (dueDate.isBefore(LocalDateTime.now().plus(pastDueTimerProperties.horizon()))) {
+                    schedule(new TodoDue(event.todo().id(), dueDate));
+                }
+            }
+            case MARKED_DONE -> scheduled.remove(event.todo().id());
+            default -> {
+            }
+        }
+    }
+
+    @EventListener
+    public void onTodosPastDue(TodosPastDueEvent event) {
+        event.todos().forEach(todo -> scheduled.remove(todo.id()));
+    }
+
+    int scheduledCount() {
+        return scheduled.size();
+    }
+
+    private void schedule(TodoDue todo) {
+        LocalDateTime previous = scheduled.put(todo.id(), todo.dueDate());
+        if (!todo.dueDate().equals(previous)) {
+            deadlines.add(new Deadline(todo));
+        }
+    }
+
+    private void run() {
+        List<Deadline> expired = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                expired.add(deadlines.take());
+                deadlines.drainTo(expired, pastDueTimerProperties.batchSize() - 1);
+                List<TodoDue> due = expired.stream()
+                        .map(Deadline::todo)
+                        .filter(todo -> scheduled.remove(todo.id(), todo.dueDate()))
+                        .toList();
+                if (!due.isEmpty()) {
+                    todoService.markTodosAsPastDue(due);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                // The sweep will catch anything we failed to flip here
+                log.error("Error occurred while marking todos as past due", e);
+            } finally {
+                expired.clear();
+            }
+        }
+    }
+
+    private record Deadline(TodoDue todo, long dueAtMillis) implements Delayed {
+
+        Deadline(TodoDue todo) {
+            // One millisecond late so the "dueDate < now" check in the update always holds
+            this(todo, todo.dueDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + 1);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAtMillis, ((Deadline) other).dueAtMillis);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.srinath.todoservice.schedulers;
+
+import com.srinath.todoservice.configs.TodoArchiveProperties;
+import com.srinath.todoservice.services.TodoArchiveService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Component
+@ConditionalOnProperty(name = "todo.storage", havingValue = "jpa", matchIfMissing = true)
+@ConditionalOnBooleanProperty(name = "todo.archive.enabled", matchIfMissing = true)
+@Slf4j
+public class TodoArchiver {
+
+    private final TodoArchiveService todoArchiveService;
+    private final TodoArchiveProperties todoArchiveProperties;
+    private final MeterRegistry meterRegistry;
+    private final Counter archivedTodos;
+
+    public TodoArchiver(TodoArchiveService todoArchiveService, TodoArchiveProperties todoArchiveProperties,
+                        MeterRegistry meterRegistry) {
+        this.todoArchiveService = todoArchiveService;
+        this.todoArchiveProperties = todoArchiveProperties;
+        this.meterRegistry = meterRegistry;
+        this.archivedTodos = Counter.builder("todo.archive.archived")
+                .description("Todos moved to the archive")
+                .baseUnit("todos")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedRateString = "${todo.archive.interval:PT1H}", initialDelayString = "${todo.archive.interval:PT1H}")
+    public void archiveTodos() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            int archived = todoArchiveService.archiveTodos(LocalDateTime.now().minus(todoArchiveProperties.age()));
+            archivedTodos.increment(archived);
+            log.debug("Archive run completed, {} todos archived", archived);
+        } catch (Exception e) {
+            outcome = "error";
+            log.error("Error occurred while archiving todos", e);
+        } finally {
+            sample.stop(Timer.builder("todo.archive")
+                    .description("Duration of an archive run")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+}
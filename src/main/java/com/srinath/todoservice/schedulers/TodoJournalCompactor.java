@@ -0,0 +1,37 @@
+package com.srinath.todoservice.schedulers;
+
+import com.srinath.todoservice.repositories.FileTodoJournal;
+import com.srinath.todoservice.repositories.InMemoryTodoStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically snapshots the in-memory store so the journal's log, and with it recovery time, stays bounded.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.storage", havingValue = "memory")
+@ConditionalOnBooleanProperty("todo.journal.enabled")
+@RequiredArgsConstructor
+@Slf4j
+public class TodoJournalCompactor {
+
+    private final FileTodoJournal todoJournal;
+    private final InMemoryTodoStore todoStore;
+
+    @Scheduled(fixedDelayString = "${todo.journal.snapshot-interval:PT10M}",
+            initialDelayString = "${todo.journal.snapshot-interval:PT10M}")
+    public void compact() {
+        try {
+            long start = System.nanoTime();
+            int count = todoJournal.compact(todoStore::forEach);
+            log.debug("Todo journal compacted, snapshot holds {} todos, took {} ms", count,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.error("Error occurred while compacting the todo journal", e);
+        }
+    }
+}
@@ -1,26 +1,73 @@
 package com.srinath.todoservice.schedulers;
 
+import com.srinath.todoservice.dtos.PastDueSweepResult;
+import com.srinath.todoservice.services.SweepLeaseService;
 import com.srinath.todoservice.services.TodoService;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.Optional;
+
 @Component
-@RequiredArgsConstructor
+@ConditionalOnProperty(name = "todo.past-due.mode", havingValue = "stored", matchIfMissing = true)
 @Slf4j
 public class TodoScheduler {
 
     private final TodoService todoService;
+    private final Optional<SweepLeaseService> sweepLeaseService;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary scannedTodos;
+    private final DistributionSummary updatedTodos;
+
+    public TodoScheduler(TodoService todoService, Optional<SweepLeaseService> sweepLeaseService,
+                         MeterRegistry meterRegistry) {
+        this.todoService = todoService;
+        this.sweepLeaseService = sweepLeaseService;
+        this.meterRegistry = meterRegistry;
+        this.scannedTodos = DistributionSummary.builder("todo.sweep.scanned")
+                .description("Due todos selected per past-due sweep")
+                .baseUnit("todos")
+                .register(meterRegistry);
+        this.updatedTodos = DistributionSummary.builder("todo.sweep.updated")
+                .description("Todos marked as past due per past-due sweep")
+                .baseUnit("todos")
+                .register(meterRegistry);
+    }
 
-    @Scheduled(fixedRate = 60000) // Run every 60 seconds
+    // Exact-time transitions are done by PastDueTimer; this is the safety net for anything it missed
+    @Scheduled(fixedRateString = "${todo.past-due-sweep.interval:PT1M}")
     public void updatePastDueTodos() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
         try {
             log.debug("Checking for past due todos...");
-            todoService.updatePastDueTodos();
-            log.debug("Past due todos check completed");
+            if (sweepLeaseService.isEmpty()) {
+                recordSweep(todoService.updatePastDueTodos());
+            } else if (sweepLeaseService.get().sweepLeasedPartitions(
+                    range -> recordSweep(todoService.updatePastDueTodos(range))) == 0) {
+                // Another node holds the lease or already swept this interval
+                outcome = "skipped";
+                log.debug("Past due todos check skipped, no sweep partition leased");
+            }
         } catch (Exception e) {
+            outcome = "error";
             log.error("Error occurred while updating past due todos", e);
+        } finally {
+            sample.stop(Timer.builder("todo.sweep")
+                    .description("Duration of the past-due sweep")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
         }
     }
+
+    private void recordSweep(PastDueSweepResult result) {
+        scannedTodos.record(result.scanned());
+        updatedTodos.record(result.updated());
+        log.debug("Past due todos check completed, {} todos marked as past due", result.updated());
+    }
 }
@@ -0,0 +1,17 @@
+package com.srinath.todoservice.services;
+
+import com.srinath.todoservice.dtos.TodoIdRange;
+
+import java.util.function.Consumer;
+
+public interface SweepLeaseService {
+
+    /**
+     * Runs {@code sweep} for every sweep partition this node can lease: partitions no other node holds and
+     * that have not been swept within the last half interval. Each lease is released afterwards; a partition
+     * whose sweep threw may be retried by any node straight away.
+     *
+     * @return number of partitions swept
+     */
+    int sweepLeasedPartitions(Consumer<TodoIdRange> sweep);
+}
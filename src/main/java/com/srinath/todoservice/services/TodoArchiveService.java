@@ -0,0 +1,11 @@
+package com.srinath.todoservice.services;
+
+import com.srinath.todoservice.dtos.TodoPage;
+
+import java.time.LocalDateTime;
+
+public interface TodoArchiveService {
+
+    int archiveTodos(LocalDateTime dueBefore);
+    TodoPage getArchivedTodos(Integer limit, String cursor);
+}
@@ -0,0 +1,15 @@
+package com.srinath.todoservice.services;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface TodoFeedService {
+
+    /**
+     * Opens a stream of todo changes. With {@code lastEventId}, the events after it are replayed first;
+     * if they are no longer retained or the id comes from another instance or an earlier start, a {@code reset}
+     * event tells the client to reload instead.
+     */
+    SseEmitter subscribe(String lastEventId);
+
+    int subscriberCount();
+}
@@ -0,0 +1,8 @@
+package com.srinath.todoservice.services;
+
+import com.srinath.todoservice.dtos.TodoSearchResults;
+
+public interface TodoSearchService {
+
+    TodoSearchResults searchTodos(String query, Integer limit, Integer offset);
+}
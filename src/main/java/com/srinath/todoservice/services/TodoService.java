@@ -1,20 +1,56 @@
 package com.srinath.todoservice.services;
 
+import com.srinath.todoservice.dtos.BatchCreateResponse;
+import com.srinath.todoservice.dtos.PastDueSweepResult;
+import com.srinath.todoservice.dtos.TodoChanges;
 import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.dtos.TodoDue;
+import com.srinath.todoservice.dtos.TodoIdRange;
+import com.srinath.todoservice.dtos.TodoPage;
+import com.srinath.todoservice.dtos.UpdateTodoStatusesResponse;
+import com.srinath.todoservice.enums.TodoStatus;
 import com.srinath.todoservice.requests.CreateTodoRequest;
 import com.srinath.todoservice.requests.UpdateTodoRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface TodoService {
 
     TodoDetails createTodoItem(CreateTodoRequest createTodoRequest);
-    TodoDetails updateTodoDescription(UUID id, UpdateTodoRequest updateTodoRequest);
-    TodoDetails markTodoAsDone(UUID id);
-    TodoDetails markTodoAsNotDone(UUID id);
+    BatchCreateResponse createTodoItems(List<CreateTodoRequest> createTodoRequests);
+    TodoDetails updateTodoDescription(UUID id, UpdateTodoRequest updateTodoRequest, Set<Long> expectedVersions);
+    TodoDetails markTodoAsDone(UUID id, Set<Long> expectedVersions);
+    TodoDetails markTodoAsNotDone(UUID id, Set<Long> expectedVersions);
+    UpdateTodoStatusesResponse updateTodoStatuses(List<UUID> ids, TodoStatus status);
     List<TodoDetails> getAllTodos(Boolean includeAll);
+    TodoPage getTodos(Boolean includeAll, Integer limit, String cursor);
+    TodoChanges getTodoChanges(String token, Integer limit);
     TodoDetails getTodoById(UUID id);
-    void updatePastDueTodos();
+    void exportTodos(Consumer<TodoDetails> consumer);
+    PastDueSweepResult updatePastDueTodos(TodoIdRange range);
+    int markTodosAsPastDue(List<TodoDue> todos);
+    List<TodoDue> getNotDoneTodosDueBetween(LocalDateTime dueFrom, LocalDateTime dueBefore);
+    long countNotDoneTodosDueBefore(LocalDateTime dueBefore);
+    Map<TodoStatus, Long> countTodosByStatus();
 
+    default PastDueSweepResult updatePastDueTodos() {
+        return updatePastDueTodos(TodoIdRange.ALL);
+    }
+
+    default TodoDetails updateTodoDescription(UUID id, UpdateTodoRequest updateTodoRequest) {
+        return updateTodoDescription(id, updateTodoRequest, null);
+    }
+
+    default TodoDetails markTodoAsDone(UUID id) {
+        return markTodoAsDone(id, null);
+    }
+
+    default TodoDetails markTodoAsNotDone(UUID id) {
+        return markTodoAsNotDone(id, null);
+    }
 }
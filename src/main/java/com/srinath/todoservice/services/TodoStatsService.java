@@ -0,0 +1,8 @@
+package com.srinath.todoservice.services;
+
+import com.srinath.todoservice.dtos.TodoStats;
+
+public interface TodoStatsService {
+
+    TodoStats getStats();
+}
@@ -0,0 +1,92 @@
+package com.srinath.todoservice.services.impl;
+
+import com.srinath.todoservice.configs.TodoSyncProperties;
+import com.srinath.todoservice.repositories.ArchivedTodoRepository;
+import com.srinath.todoservice.repositories.TodoRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * How far delta sync against the database may hand out tokens. Change sequence numbers are taken when a row is
+ * written, not when it commits, so a slower transaction can commit a number below one a client has already
+ * synced past, and that client would never see it.
+ * <p>
+ * The highest committed number is sampled every sample interval. Once a sample is commit lag old, every write
+ * that had taken a lower number has committed or rolled back, provided write transactions finish within the
+ * lag, so sync reads no further than the latest such sample. Changes reach syncing clients up to one lag late.
+ * Samples are also taken on demand, so sync works with scheduling turned off.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.storage", havingValue = "jpa", matchIfMissing = true)
+public class ChangeSeqWatermark {
+
+    private final TodoRepository todoRepository;
+    private final ArchivedTodoRepository archivedTodoRepository;
+    private final TodoSyncProperties syncProperties;
+    // Oldest first, none settled yet. Guarded by this, together with settledChangeSeq
+    private final Deque<Sample> samples = new ArrayDeque<>();
+    private long settledChangeSeq;
+
+    public ChangeSeqWatermark(TodoRepository todoRepository, ArchivedTodoRepository archivedTodoRepository,
+                              TodoSyncProperties syncProperties) {
+        this.todoRepository = todoRepository;
+        this.archivedTodoRepository = archivedTodoRepository;
+        this.syncProperties = syncProperties;
+    }
+
+    /**
+     * Highest change sequence number sync may return. Every number up to it is either committed or never will be.
+     */
+    public long safeChangeSeq() {
+        if (syncProperties.commitLag().isZero()) {
+            return Long.MAX_VALUE;
+        }
+        long now = System.nanoTime();
+        Sample newest;
+        synchronized (this) {
+            newest = samples.peekLast();
+        }
+        if (newest == null || now - newest.takenAt() >= syncProperties.sampleInterval().toNanos()) {
+            sample();
+        }
+        synchronized (this) {
+            return settle(System.nanoTime());
+        }
+    }
+
+    @Scheduled(fixedRateString = "${todo.sync.sample-interval:PT1S}")
+    public void sample() {
+        if (syncProperties.commitLag().isZero()) {
+            return;
+        }
+        // Archive moves take numbers from the same sequence, and the last of them may be the highest
+        long maxChangeSeq = Math.max(orZero(todoRepository.findMaxChangeSeq()),
+                orZero(archivedTodoRepository.findMaxChangeSeq()));
+        // Stamped once the read has finished, so the lag is counted from no earlier than what it saw
+        long takenAt = System.nanoTime();
+        synchronized (this) {
+            samples.addLast(new Sample(takenAt, maxChangeSeq));
+            settle(takenAt);
+        }
+    }
+
+    // The settled number never goes back, even if a later sample reads lower
+    private long settle(long now) {
+        long settledBefore = now - syncProperties.commitLag().toNanos();
+        while (!samples.isEmpty() && samples.peekFirst().takenAt() <= settledBefore) {
+            settledChangeSeq = Math.max(settledChangeSeq, samples.pollFirst().maxChangeSeq());
+        }
+        return settledChangeSeq;
+    }
+
+    private static long orZero(Long changeSeq) {
+        return changeSeq == null ? 0 : changeSeq;
+    }
+
+    private record Sample(long takenAt, long maxChangeSeq) {
+    }
+}
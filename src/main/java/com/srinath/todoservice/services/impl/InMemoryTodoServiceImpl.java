@@ -0,0 +1,286 @@
+package com.srinath.todoservice.services.impl;
+
+import com.srinath.todoservice.configs.PastDueProperties;
+import com.srinath.todoservice.configs.PastDueSweepProperties;
+import com.srinath.todoservice.dtos.BatchCreateItemResult;
+import com.srinath.todoservice.dtos.BatchCreateResponse;
+import com.srinath.todoservice.dtos.ChangeToken;
+import com.srinath.todoservice.dtos.PastDueSweepResult;
+import com.srinath.todoservice.dtos.TodoChange;
+import com.srinath.todoservice.dtos.TodoChanges;
+import com.srinath.todoservice.dtos.TodoCursor;
+import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.dtos.TodoDue;
+import com.srinath.todoservice.dtos.TodoIdRange;
+import com.srinath.todoservice.dtos.TodoPage;
+import com.srinath.todoservice.dtos.UpdateTodoStatusesResponse;
+import com.srinath.todoservice.enums.TodoChangeType;
+import com.srinath.todoservice.enums.TodoStatus;
+import com.srinath.todoservice.events.TodoChangedEvent;
+import com.srinath.todoservice.events.TodosPastDueEvent;
+import com.srinath.todoservice.exceptions.ApiException;
+import com.srinath.todoservice.exceptions.TodoNotFoundException;
+import com.srinath.todoservice.exceptions.statuscodes.StatusCodes;
+import com.srinath.todoservice.repositories.InMemoryTodoStore;
+import com.srinath.todoservice.repositories.InMemoryTodoStore.StoredTodo;
+import com.srinath.todoservice.repositories.InMemoryTodoStore.Update;
+import com.srinath.todoservice.requests.CreateTodoRequest;
+import com.srinath.todoservice.requests.UpdateTodoRequest;
+import com.srinath.todoservice.services.TodoService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * {@link TodoService} backed by {@link InMemoryTodoStore}, selected with {@code todo.storage=memory}.
+ * Behaves like {@link TodoServiceImpl} except that bulk status updates are applied todo by todo rather than
+ * in one transaction, and todos do not survive a restart.
+ */
+@Service
+@ConditionalOnProperty(name = "todo.storage", havingValue = "memory")
+@RequiredArgsConstructor
+public class InMemoryTodoServiceImpl implements TodoService {
+
+    private final InMemoryTodoStore todoStore;
+    private final PastDueSweepProperties pastDueSweepProperties;
+    private final PastDueProperties pastDueProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public TodoDetails createTodoItem(CreateTodoRequest createTodoRequest) {
+        TodoRules.validateCreateRequest(createTodoRequest);
+        return publish(TodoChangeType.CREATED, insert(createTodoRequest, LocalDateTime.now()));
+    }
+
+    @Override
+    public BatchCreateResponse createTodoItems(List<CreateTodoRequest> createTodoRequests) {
+        TodoRules.validateBatchSize(createTodoRequests);
+        LocalDateTime now = LocalDateTime.now();
+        List<BatchCreateItemResult> results = new ArrayList<>(createTodoRequests.size());
+        int created = 0;
+        for (int i = 0; i < createTodoRequests.size(); i++) {
+            CreateTodoRequest createTodoRequest = createTodoRequests.get(i);
+            try {
+                TodoRules.validateCreateRequest(createTodoRequest);
+            } catch (ApiException e) {
+                results.add(BatchCreateItemResult.failed(i, e.getStatusCode(), e.getStatusDescription()));
+                continue;
+            }
+            results.add(BatchCreateItemResult.created(i,
+                    publish(TodoChangeType.CREATED, insert(createTodoRequest, now))));
+            created++;
+        }
+        return new BatchCreateResponse(created, results.size() - created, results);
+    }
+
+    @Override
+    public TodoDetails updateTodoDescription(UUID id, UpdateTodoRequest updateTodoRequest, Set<Long> expectedVersions) {
+        Update update = modify(id, expectedVersions, todo -> todo.withDescription(updateTodoRequest.getDescription()));
+        return publish(TodoChangeType.DESCRIPTION_UPDATED, update.after().toDetails());
+    }
+
+    @Override
+    public TodoDetails markTodoAsDone(UUID id, Set<Long> expectedVersions) {
+        Update update = modify(id, expectedVersions, todo -> todo.status() == TodoStatus.DONE ? todo
+                : todo.withStatus(TodoStatus.DONE, LocalDateTime.now()));
+        //If item is already in desired state. Return gracefully without throwing error
+        return update.changed() ? publish(TodoChangeType.MARKED_DONE, update.after().toDetails())
+                : update.after().toDetails();
+    }
+
+    @Override
+    public TodoDetails markTodoAsNotDone(UUID id, Set<Long> expectedVersions) {
+        Update update = modify(id, expectedVersions, todo -> todo.status() == TodoStatus.NOT_DONE ? todo
+                : todo.withStatus(TodoStatus.NOT_DONE, null));
+        //If item is already in desired state. Return gracefully without throwing error
+        return update.changed() ? publish(TodoChangeType.MARKED_NOT_DONE, update.after().toDetails())
+                : update.after().toDetails();
+    }
+
+    @Override
+    public UpdateTodoStatusesResponse updateTodoStatuses(List<UUID> ids, TodoStatus status) {
+        TodoRules.validateBatchSize(ids);
+        TodoRules.validateTargetStatus(status);
+        LocalDateTime completedAt = status == TodoStatus.DONE ? LocalDateTime.now() : null;
+        TodoChangeType changeType = status == TodoStatus.DONE ? TodoChangeType.MARKED_DONE
+                : TodoChangeType.MARKED_NOT_DONE;
+
+        List<UUID> changed = new ArrayList<>();
+        List<UUID> unchanged = new ArrayList<>();
+        List<UUID> notFound = new ArrayList<>();
+        List<UUID> blocked = new ArrayList<>();
+        for (UUID id : new LinkedHashSet<>(ids)) {
+            Optional<Update> result = todoStore.update(id, todo ->
+                    todo.status() == status || TodoRules.isPastDue(todo.status(), todo.dueDate()) ? todo
+                            : todo.withStatus(status, completedAt));
+            if (result.isEmpty()) {
+                notFound.add(id);
+            } else if (result.get().changed()) {
+                changed.add(id);
+                publish(changeType, result.get().after().toDetails());
+            } else if (result.get().after().status() == status) {
+                unchanged.add(id);
+            } else {
+                blocked.add(id);
+            }
+        }
+        return new UpdateTodoStatusesResponse(changed, unchanged, notFound, blocked);
+    }
+
+    @Override
+    public List<TodoDetails> getAllTodos(Boolean includeAll) {
+        LocalDateTime now = LocalDateTime.now();
+        List<StoredTodo> todos;
+        if (Boolean.TRUE.equals(includeAll)) {
+            todos = todoStore.findAll(null, null, Integer.MAX_VALUE);
+        } else if (pastDueProperties.derived()) {
+            todos = todoStore.findByStatusDueFrom(TodoStatus.NOT_DONE, now, Integer.MAX_VALUE);
+        } else {
+            todos = todoStore.findByStatus(TodoStatus.NOT_DONE, null, null, Integer.MAX_VALUE);
+        }
+        return todos.stream().map(todo -> toDetails(todo, now)).toList();
+    }
+
+    @Override
+    public TodoPage getTodos(Boolean includeAll, Integer limit, String cursor) {
+        TodoRules.validatePageLimit(limit);
+        TodoCursor after = cursor == null || cursor.isBlank() ? null : TodoCursor.decode(cursor);
+        LocalDateTime afterDueDate = after == null ? null : after.dueDate();
+        UUID afterId = after == null ? null : after.id();
+        LocalDateTime now = LocalDateTime.now();
+        // Fetch one extra todo so we know whether a next page exists
+        List<StoredTodo> todos;
+        if (Boolean.TRUE.equals(includeAll)) {
+            todos = todoStore.findAll(afterDueDate, afterId, limit + 1);
+        } else if (pastDueProperties.derived() && (afterDueDate == null || afterDueDate.isBefore(now))) {
+            // A cursor from before now points at todos that have since fallen due, so start from now instead
+            todos = todoStore.findByStatusDueFrom(TodoStatus.NOT_DONE, now, limit + 1);
+        } else {
+            todos = todoStore.findByStatus(TodoStatus.NOT_DONE, afterDueDate, afterId, limit + 1);
+        }
+        List<TodoDetails> items = todos.stream().limit(limit).map(todo -> toDetails(todo, now)).toList();
+        String next = todos.size() > limit ? TodoCursor.of(items.get(items.size() - 1)).encode() : null;
+        return new TodoPage(items, next);
+    }
+
+    @Override
+    public TodoChanges getTodoChanges(String token, Integer limit) {
+        TodoRules.validatePageLimit(limit);
+        ChangeToken after = token == null || token.isBlank() ? ChangeToken.START : ChangeToken.decode(token);
+        List<TodoChange> changes = todoStore.findChangesAfter(after.changeSeq(), limit + 1);
+        if (pastDueProperties.derived()) {
+            LocalDateTime now = LocalDateTime.now();
+            changes = changes.stream()
+                    .map(change -> change.withTodo(change.todo().derivePastDue(now)))
+                    .toList();
+        }
+        return TodoChanges.of(after, changes, limit);
+    }
+
+    @Override
+    public TodoDetails getTodoById(UUID id) {
+        return todoStore.findById(id)
+                .map(todo -> toDetails(todo, LocalDateTime.now()))
+                .orElseThrow(() -> new TodoNotFoundException(StatusCodes.TODO_NOT_FOUND));
+    }
+
+    @Override
+    public void exportTodos(Consumer<TodoDetails> consumer) {
+        LocalDateTime now = LocalDateTime.now();
+        todoStore.forEach(todo -> consumer.accept(toDetails(todo, now)));
+    }
+
+    @Override
+    public PastDueSweepResult updatePastDueTodos(TodoIdRange range) {
+        LocalDateTime now = LocalDateTime.now();
+        int chunkSize = pastDueSweepProperties.chunkSize();
+        long deadline = System.nanoTime() + pastDueSweepProperties.timeBudget().toNanos();
+        int scannedCount = 0;
+        int updatedCount = 0;
+        List<TodoDue> chunk;
+        do {
+            chunk = todoStore.findDueByStatusAndDueDateBefore(TodoStatus.NOT_DONE, now, range, chunkSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            scannedCount += chunk.size();
+            updatedCount += markTodosAsPastDue(chunk, now);
+        } while (chunk.size() == chunkSize && System.nanoTime() < deadline);
+        return new PastDueSweepResult(scannedCount, updatedCount);
+    }
+
+    @Override
+    public int markTodosAsPastDue(List<TodoDue> todos) {
+        return markTodosAsPastDue(todos, LocalDateTime.now());
+    }
+
+    @Override
+    public List<TodoDue> getNotDoneTodosDueBetween(LocalDateTime dueFrom, LocalDateTime dueBefore) {
+        return todoStore.findDueByStatusAndDueDateBetween(TodoStatus.NOT_DONE, dueFrom, dueBefore);
+    }
+
+    @Override
+    public long countNotDoneTodosDueBefore(LocalDateTime dueBefore) {
+        return todoStore.countByStatusAndDueDateBefore(TodoStatus.NOT_DONE, dueBefore);
+    }
+
+    @Override
+    public Map<TodoStatus, Long> countTodosByStatus() {
+        Map<TodoStatus, Long> counts = new EnumMap<>(TodoStatus.class);
+        todoStore.forEach(todo -> counts.merge(todo.status(), 1L, Long::sum));
+        return counts;
+    }
+
+    private int markTodosAsPastDue(List<TodoDue> todos, LocalDateTime now) {
+        List<TodoDue> marked = new ArrayList<>(todos.size());
+        for (TodoDue due : todos) {
+            todoStore.update(due.id(), todo -> todo.status() == TodoStatus.NOT_DONE && todo.dueDate().isBefore(now)
+                            ? todo.withStatus(TodoStatus.PAST_DUE, todo.completedAt()) : todo)
+                    .filter(Update::changed)
+                    .ifPresent(update -> marked.add(update.after().toDue()));
+        }
+        if (!marked.isEmpty()) {
+            eventPublisher.publishEvent(new TodosPastDueEvent(marked, now));
+        }
+        return marked.size();
+    }
+
+    // Writes return the stored state; reads go through here so a derived past due shows
+    private TodoDetails toDetails(StoredTodo todo, LocalDateTime now) {
+        return pastDueProperties.derived() ? todo.toDetails().derivePastDue(now) : todo.toDetails();
+    }
+
+    private StoredTodo insert(CreateTodoRequest createTodoRequest, LocalDateTime now) {
+        return todoStore.insert(new StoredTodo(UUID.randomUUID(), createTodoRequest.getDescription(),
+                TodoStatus.NOT_DONE, now, createTodoRequest.getDueDate(), null, 0L));
+    }
+
+    private Update modify(UUID id, Set<Long> expectedVersions, UnaryOperator<StoredTodo> change) {
+        return todoStore.update(id, todo -> {
+            TodoRules.verifyModifiable(todo.status(), todo.dueDate(), todo.version(), expectedVersions);
+            return change.apply(todo);
+        }).orElseThrow(() -> new TodoNotFoundException(StatusCodes.TODO_NOT_FOUND));
+    }
+
+    private TodoDetails publish(TodoChangeType type, StoredTodo todo) {
+        return publish(type, todo.toDetails());
+    }
+
+    private TodoDetails publish(TodoChangeType type, TodoDetails todo) {
+        eventPublisher.publishEvent(new TodoChangedEvent(type, todo));
+        return todo;
+    }
+}
@@ -0,0 +1,33 @@
+package com.srinath.todoservice.services.impl;
+
+import com.srinath.todoservice.events.TodosPastDueEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Records how long after its due date each todo was actually marked as past due, whether by the timer
+ * or by the sweep. Runs after commit so rolled back updates are not counted.
+ */
+@Component
+public class PastDueStalenessRecorder {
+
+    private final Timer staleness;
+
+    public PastDueStalenessRecorder(MeterRegistry meterRegistry) {
+        this.staleness = Timer.builder("todo.staleness")
+                .description("Delay between a todo's due date and it being marked as past due")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodosPastDue(TodosPastDueEvent event) {
+        event.todos().forEach(todo -> {
+            Duration delay = Duration.between(todo.dueDate(), event.markedAt());
+            staleness.record(delay.isNegative() ? Duration.ZERO : delay);
+        });
+    }
+}
@@ -0,0 +1,112 @@
+package com.srinath.todoservice.services.impl;
+
+import com.srinath.todoservice.configs.PastDueSweepProperties;
+import com.srinath.todoservice.configs.SweepLeaseProperties;
+import com.srinath.todoservice.dtos.TodoIdRange;
+import com.srinath.todoservice.entities.SweepLease;
+import com.srinath.todoservice.repositories.SweepLeaseRepository;
+import com.srinath.todoservice.services.SweepLeaseService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Leases sweep partitions through rows of the {@link SweepLease} table, so replicas sharing the database
+ * do not sweep the same todos. With one partition this makes the sweep run on one node per interval;
+ * the node that swept last keeps it while it stays up, and any other node takes over once a full
+ * interval passes without a sweep.
+ */
+@Service
+@ConditionalOnProperty(name = "todo.storage", havingValue = "jpa", matchIfMissing = true)
+@ConditionalOnBooleanProperty(name = "todo.past-due-sweep.lease.enabled", matchIfMissing = true)
+@Slf4j
+public class SweepLeaseServiceImpl implements SweepLeaseService {
+
+    private static final String LEASE_NAME_PREFIX = "past-due-sweep-";
+
+    private final SweepLeaseRepository sweepLeaseRepository;
+    private final List<TodoIdRange> partitions;
+    private final Duration lockTimeout;
+    private final Duration minSweepSpacing;
+    private final String owner;
+
+    public SweepLeaseServiceImpl(SweepLeaseRepository sweepLeaseRepository, SweepLeaseProperties leaseProperties,
+                                 PastDueSweepProperties sweepProperties) {
+        this.sweepLeaseRepository = sweepLeaseRepository;
+        this.partitions = TodoIdRange.partitions(leaseProperties.partitions());
+        this.lockTimeout = leaseProperties.lockTimeout();
+        // Nodes run on their own schedules, so "swept this interval" allows for them being out of phase
+        this.minSweepSpacing = sweepProperties.interval().dividedBy(2);
+        this.owner = hostName() + "/" + UUID.randomUUID();
+    }
+
+    @Override
+    public int sweepLeasedPartitions(Consumer<TodoIdRange> sweep) {
+        List<Integer> order = new ArrayList<>(partitions.size());
+        for (int i = 0; i < partitions.size(); i++) {
+            order.add(i);
+        }
+        // Nodes starting together would otherwise all race for partition 0 first
+        Collections.shuffle(order);
+        int swept = 0;
+        for (int index : order) {
+            String name = LEASE_NAME_PREFIX + index + "-of-" + partitions.size();
+            if (!tryAcquire(name)) {
+                continue;
+            }
+            boolean completed = false;
+            try {
+                sweep.accept(partitions.get(index));
+                completed = true;
+                swept++;
+            } finally {
+                LocalDateTime now = LocalDateTime.now();
+                if (completed) {
+                    sweepLeaseRepository.releaseSwept(name, owner, now);
+                } else {
+                    sweepLeaseRepository.release(name, owner, now);
+                }
+            }
+        }
+        return swept;
+    }
+
+    private boolean tryAcquire(String name) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime lockedUntil = now.plus(lockTimeout);
+        if (sweepLeaseRepository.acquire(name, owner, now, lockedUntil, now.minus(minSweepSpacing)) == 1) {
+            return true;
+        }
+        if (sweepLeaseRepository.existsById(name)) {
+            log.debug("Sweep lease {} is held or was swept recently", name);
+            return false;
+        }
+        try {
+            sweepLeaseRepository.saveAndFlush(new SweepLease(name, owner, lockedUntil, null));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the row first
+            return false;
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown-host";
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.srinath.todoservice.services.impl;
+
+import com.srinath.todoservice.configs.PastDueProperties;
+import com.srinath.todoservice.configs.TodoArchiveProperties;
+import com.srinath.todoservice.dtos.TodoCursor;
+import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.dtos.TodoDue;
+import com.srinath.todoservice.dtos.TodoPage;
+import com.srinath.todoservice.enums.TodoStatus;
+import com.srinath.todoservice.events.TodosArchivedEvent;
+import com.srinath.todoservice.repositories.ArchivedTodoRepository;
+import com.srinath.todoservice.repositories.TodoRepository;
+import com.srinath.todoservice.services.TodoArchiveService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves todos whose due date is long past from the {@code Todo} table to the {@code ArchivedTodo} table,
+ * so listing, paging, sync and the past due sweep only work over the todos still in play.
+ * <p>
+ * Past its due date a todo can no longer be modified, so the rows being moved never change under the
+ * archiver. Each chunk is copied and then deleted, in a short transaction each. The copy skips todos already
+ * in the archive and the delete only takes todos that are, so a chunk left half moved by a failure is
+ * finished by the next run.
+ */
+@Service
+@ConditionalOnProperty(name = "todo.storage", havingValue = "jpa", matchIfMissing = true)
+@Slf4j
+@RequiredArgsConstructor
+public class TodoArchiveServiceImpl implements TodoArchiveService {
+
+    private final TodoRepository todoRepository;
+    private final ArchivedTodoRepository archivedTodoRepository;
+    private final TodoArchiveProperties todoArchiveProperties;
+    private final PastDueProperties pastDueProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public int archiveTodos(LocalDateTime dueBefore) {
+        // Not done todos this far past their due date are past due when it is derived; when it is stored
+        // the sweep flips them first
+        List<TodoStatus> statuses = pastDueProperties.derived() ? List.of(TodoStatus.values())
+                : List.of(TodoStatus.DONE, TodoStatus.PAST_DUE);
+        int chunkSize = todoArchiveProperties.chunkSize();
+        long deadline = System.nanoTime() + todoArchiveProperties.timeBudget().toNanos();
+        int archivedCount = 0;
+        for (TodoStatus status : statuses) {
+            List<TodoDue> chunk;
+            do {
+                chunk = todoRepository.findDueByStatusAndDueDateBefore(status, dueBefore, Limit.of(chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                archivedCount += archive(status, chunk, dueBefore);
+            } while (chunk.size() == chunkSize && System.nanoTime() < deadline);
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+        return archivedCount;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TodoPage getArchivedTodos(Integer limit, String cursor) {
+        TodoRules.validatePageLimit(limit);
+        // Fetch one extra row so we know whether a next page exists without a count query
+        Limit fetchLimit = Limit.of(limit + 1);
+        TodoCursor after = cursor == null || cursor.isBlank() ? null : TodoCursor.decode(cursor);
+        List<TodoDetails> todos = after == null ? archivedTodoRepository.findDetails(fetchLimit)
+                : archivedTodoRepository.findDetailsAfter(after.dueDate(), after.id(), fetchLimit);
+        if (pastDueProperties.derived()) {
+            LocalDateTime now = LocalDateTime.now();
+            todos = todos.stream().map(todo -> todo.derivePastDue(now)).toList();
+        }
+        List<TodoDetails> items = todos.size() > limit ? todos.subList(0, limit) : todos;
+        String next = todos.size() > limit ? TodoCursor.of(items.get(items.size() - 1)).encode() : null;
+        return new TodoPage(items, next);
+    }
+
+    private int archive(TodoStatus status, List<TodoDue> chunk, LocalDateTime dueBefore) {
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> ids = chunk.stream().map(TodoDue::id).toList();
+        archivedTodoRepository.copyFromTodos(ids, status, dueBefore, now);
+        int deletedCount = todoRepository.deleteArchived(ids);
+        // Part of a chunk another node archived first is still in the event; the stats check corrects for that
+        if (deletedCount > 0) {
+            eventPublisher.publishEvent(new TodosArchivedEvent(status, chunk, now));
+        }
+        return deletedCount;
+    }
+}
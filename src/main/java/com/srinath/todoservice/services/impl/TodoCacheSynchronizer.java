@@ -0,0 +1,59 @@
+package com.srinath.todoservice.services.impl;
+
+import com.srinath.todoservice.configs.CacheConfig;
+import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.events.TodoChangedEvent;
+import com.srinath.todoservice.events.TodosArchivedEvent;
+import com.srinath.todoservice.events.TodosPastDueEvent;
+import com.srinath.todoservice.repositories.TodoRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps the todo cache read by {@link TodoRepository#findDetailsById} in step with writes. Runs after
+ * commit so a rolled back write never reaches the cache.
+ * <p>
+ * A changed todo only replaces an entry that is already cached and holds a lower version, so an event arriving
+ * late never overwrites a newer value. The replace takes the entry's lock, which the read-through load holds
+ * too: a load that read the row before the commit finishes first and is then replaced. A todo that is not
+ * cached is left to the next read.
+ */
+@Component
+@RequiredArgsConstructor
+public class TodoCacheSynchronizer {
+
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoChanged(TodoChangedEvent event) {
+        Cache cache = cacheManager.getCache(CacheConfig.TODOS_CACHE);
+        TodoDetails todo = event.todo();
+        if (cache instanceof CaffeineCache caffeineCache) {
+            caffeineCache.getNativeCache().asMap().computeIfPresent(todo.id(), (id, cached) ->
+                    cached instanceof TodoDetails current && current.version() >= todo.version() ? current : todo);
+        } else if (cache != null) {
+            cache.evict(todo.id());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodosPastDue(TodosPastDueEvent event) {
+        Cache cache = cacheManager.getCache(CacheConfig.TODOS_CACHE);
+        if (cache != null) {
+            event.todos().forEach(todo -> cache.evict(todo.id()));
+        }
+    }
+
+    // Archived todos are read from the archive from now on, which is not cached
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodosArchived(TodosArchivedEvent event) {
+        Cache cache = cacheManager.getCache(CacheConfig.TODOS_CACHE);
+        if (cache != null) {
+            event.todos().forEach(todo -> cache.evict(todo.id()));
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.srinath.todoservice.services.impl;
+
+import com.srinath.todoservice.configs.TodoFeedProperties;
+import com.srinath.todoservice.events.TodoChangedEvent;
+import com.srinath.todoservice.events.TodosPastDueEvent;
+import com.srinath.todoservice.services.TodoFeedService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes todo changes to server-sent event subscribers once their transaction has committed.
+ * <p>
+ * Every event gets the next id and goes into a fixed-size ring, so a reconnecting client can resume
+ * after the last id it saw. Each subscriber has its own bounded queue, drained on the feed's own fixed pool of
+ * sender threads so a blocked write never takes threads from the rest of the application. A subscriber that lets
+ * its queue fill up, or whose write blocks past the send timeout, is disconnected rather than holding up writes or
+ * other subscribers, and can resume from the ring when it reconnects. A blocked write cannot be interrupted, so
+ * its thread only comes back when the container's write timeout fails it; until then the other senders carry on. Ids are numbered from 1 per instance and
+ * qualified with a random epoch picked at startup, as {@code <epoch>-<number>}, so an id from before a restart
+ * or from another instance is never mistaken for one of ours; it is answered with a reset, as is an id the ring
+ * no longer holds.
+ */
+@Service
+@Slf4j
+public class TodoFeedServiceImpl implements TodoFeedService {
+
+    static final String RESET_EVENT = "reset";
+    static final String PAST_DUE_EVENT = "past-due";
+
+    private static final FeedEvent HEARTBEAT = new FeedEvent(0, null, null);
+
+    private final TodoFeedProperties feedProperties;
+    private final Executor taskExecutor;
+    // Null when the executor was handed in
+    private final ExecutorService senders;
+    private final Counter droppedSubscribers;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Hex, so it never contains the separator
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    // Guarded by this, together with lastEventId, so subscribers see events in id order
+    private final FeedEvent[] history;
+    private long lastEventId;
+
+    @Autowired
+    public TodoFeedServiceImpl(TodoFeedProperties feedProperties, MeterRegistry meterRegistry) {
+        this(feedProperties, Executors.newFixedThreadPool(feedProperties.senderThreads(),
+                Thread.ofPlatform().daemon().name("todo-feed-", 1).factory()), meterRegistry);
+    }
+
+    TodoFeedServiceImpl(TodoFeedProperties feedProperties, Executor taskExecutor, MeterRegistry meterRegistry) {
+        this.feedProperties = feedProperties;
+        this.taskExecutor = taskExecutor;
+        this.senders = taskExecutor instanceof ExecutorService executorService ? executorService : null;
+        this.history = new FeedEvent[feedProperties.replaySize()];
+        this.droppedSubscribers = Counter.builder("todo.feed.dropped")
+                .description("Feed subscribers disconnected for falling behind")
+                .register(meterRegistry);
+        Gauge.builder("todo.feed.subscribers", subscribers, Set::size)
+                .description("Open change feed streams")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = newEmitter();
+        Long after = lastEventId == null ? null : parseEventId(lastEventId);
+        Subscriber subscriber;
+        synchronized (this) {
+            long oldestRetained = Math.max(1, this.lastEventId - history.length + 1);
+            boolean resumable = after != null && after >= oldestRetained - 1 && after <= this.lastEventId;
+            int replayed = resumable ? (int) (this.lastEventId - after) : 0;
+            subscriber = new Subscriber(emitter, feedProperties.bufferSize() + replayed);
+            if (lastEventId != null && !resumable) {
+                subscriber.queue.add(new FeedEvent(this.lastEventId, RESET_EVENT, eventId(this.lastEventId)));
+            }
+            for (long id = this.lastEventId - replayed + 1; id <= this.lastEventId; id++) {
+                subscriber.queue.add(history[slot(id)]);
+            }
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        subscriber.scheduleDrain();
+        return emitter;
+    }
+
+    @Override
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoChanged(TodoChangedEvent event) {
+        publish(event.type().name().toLowerCase(Locale.ROOT).replace('_', '-'), event.todo());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodosPastDue(TodosPastDueEvent event) {
+        publish(PAST_DUE_EVENT, event);
+    }
+
+    // Keeps idle streams from being cut by proxies and notices clients that went away
+    @Scheduled(fixedRateString = "${todo.feed.heartbeat-interval:PT15S}")
+    public void sendHeartbeats() {
+        subscribers.forEach(subscriber -> {
+            if (subscriber.queue.isEmpty() && subscriber.queue.offer(HEARTBEAT)) {
+                subscriber.scheduleDrain();
+            }
+        });
+    }
+
+    // A subscriber still inside one write after the send timeout has stopped reading
+    @Scheduled(fixedRateString = "${todo.feed.send-timeout:PT10S}")
+    public void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        subscribers.forEach(subscriber -> {
+            long sendingSince = subscriber.sendingSince;
+            if (sendingSince != 0 && now - sendingSince > feedProperties.sendTimeout().toNanos()) {
+                log.debug("Disconnecting change feed subscriber stalled in a write");
+                droppedSubscribers.increment();
+                subscriber.overflow();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void completeAll() {
+        // Open streams would otherwise hold up graceful shutdown until they time out
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        if (senders != null) {
+            senders.shutdown();
+        }
+    }
+
+    private synchronized void publish(String name, Object data) {
+        FeedEvent event = new FeedEvent(++lastEventId, name, data);
+        history[slot(event.id())] = event;
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.queue.offer(event)) {
+                subscriber.scheduleDrain();
+            } else {
+                log.debug("Disconnecting change feed subscriber that fell {} events behind", subscriber.queue.size());
+                droppedSubscribers.increment();
+                subscriber.overflow();
+            }
+        }
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(feedProperties.timeout().toMillis());
+    }
+
+    String eventId(long id) {
+        return epoch + "-" + id;
+    }
+
+    // Null for ids from another epoch and for anything that is not an id at all
+    Long parseEventId(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !epoch.equals(eventId.substring(0, separator))) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private int slot(long id) {
+        return (int) (id % history.length);
+    }
+
+    private record FeedEvent(long id, String name, Object data) {
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<FeedEvent> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        private volatile boolean overflowed;
+        // System.nanoTime() when the write in progress started, 0 between writes
+        private volatile long sendingSince;
+        // Only touched by drains, which never overlap
+        private boolean completed;
+
+        private Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        }
+
+        // At most one drain runs per subscriber, which keeps its events in order
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                taskExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                FeedEvent event;
+                while (!closed && (event = queue.poll()) != null) {
+                    send(event);
+                }
+                if (overflowed && !completed) {
+                    completed = true;
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away; the emitter's own callbacks finish the cleanup
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // Catches events or an overflow that arrived while this drain was finishing
+            if (closed ? overflowed && !completed : !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void send(FeedEvent event) throws IOException {
+            sendingSince = Math.max(1, System.nanoTime());
+            try {
+                if (event == HEARTBEAT) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    emitter.send(SseEmitter.event()
+                            .id(eventId(event.id()))
+                            .name(event.name())
+                            .data(event.data(), MediaType.APPLICATION_JSON));
+                }
+            } finally {
+                sendingSince = 0;
+            }
+        }
+
+        private void overflow() {
+            overflowed = true;
+            close();
+            queue.clear();
+            scheduleDrain();
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+    }
+}
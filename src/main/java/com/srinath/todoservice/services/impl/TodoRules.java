@@ -0,0 +1,82 @@
+package com.srinath.todoservice.services.impl;
+
+import com.srinath.todoservice.enums.TodoStatus;
+import com.srinath.todoservice.exceptions.InvalidParameterException;
+import com.srinath.todoservice.exceptions.TodoCannotBeModifiedException;
+import com.srinath.todoservice.exceptions.TodoVersionMismatchException;
+import com.srinath.todoservice.exceptions.statuscodes.StatusCodes;
+import com.srinath.todoservice.repositories.TodoSearchIndex;
+import com.srinath.todoservice.requests.CreateTodoRequest;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Validation shared by the storage-specific {@code TodoService} implementations.
+ */
+final class TodoRules {
+
+    static final int MAX_PAGE_LIMIT = 1000;
+    static final int MAX_BATCH_SIZE = 1000;
+
+    private TodoRules() {
+    }
+
+    static void validateCreateRequest(CreateTodoRequest createTodoRequest) {
+        if (createTodoRequest == null || createTodoRequest.getDescription() == null ||
+                createTodoRequest.getDescription().trim().isEmpty()) {
+            throw new InvalidParameterException(StatusCodes.DESCRIPTION_NOT_EMPTY);
+        }
+
+        if (createTodoRequest.getDueDate() == null ||
+                createTodoRequest.getDueDate().isBefore(LocalDateTime.now())) {
+            throw new InvalidParameterException(StatusCodes.DUE_DATE_CANNOT_BE_PAST);
+        }
+    }
+
+    static void validateBatchSize(Collection<?> items) {
+        if (items == null || items.isEmpty() || items.size() > MAX_BATCH_SIZE) {
+            throw new InvalidParameterException(StatusCodes.INVALID_BATCH_SIZE);
+        }
+    }
+
+    static void validateTargetStatus(TodoStatus status) {
+        if (status != TodoStatus.DONE && status != TodoStatus.NOT_DONE) {
+            throw new InvalidParameterException(StatusCodes.INVALID_TARGET_STATUS);
+        }
+    }
+
+    static void validatePageLimit(Integer limit) {
+        if (limit == null || limit < 1 || limit > MAX_PAGE_LIMIT) {
+            throw new InvalidParameterException(StatusCodes.INVALID_PAGE_LIMIT);
+        }
+    }
+
+    static void validateSearchQuery(String query) {
+        if (query == null || TodoSearchIndex.tokenize(query).isEmpty()) {
+            throw new InvalidParameterException(StatusCodes.INVALID_SEARCH_QUERY);
+        }
+    }
+
+    static void validateSearchOffset(Integer offset, int maxOffset) {
+        if (offset == null || offset < 0 || offset > maxOffset) {
+            throw new InvalidParameterException(StatusCodes.INVALID_SEARCH_OFFSET);
+        }
+    }
+
+    static boolean isPastDue(TodoStatus status, LocalDateTime dueDate) {
+        return status == TodoStatus.PAST_DUE || dueDate.isBefore(LocalDateTime.now());
+    }
+
+    // The version is checked first so a stale client learns it has to re-read before anything else.
+    // Null expected versions mean no precondition; an empty set matches nothing
+    static void verifyModifiable(TodoStatus status, LocalDateTime dueDate, Long version, Set<Long> expectedVersions) {
+        if (expectedVersions != null && !expectedVersions.contains(version)) {
+            throw new TodoVersionMismatchException(StatusCodes.TODO_VERSION_MISMATCH);
+        }
+        if (isPastDue(status, dueDate)) {
+            throw new TodoCannotBeModifiedException(StatusCodes.PAST_TODO_CONNOT_MODIFY);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.srinath.todoservice.services.impl;
+
+import com.srinath.todoservice.configs.TodoSearchProperties;
+import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.dtos.TodoSearchResults;
+import com.srinath.todoservice.events.TodoChangedEvent;
+import com.srinath.todoservice.events.TodosArchivedEvent;
+import com.srinath.todoservice.exceptions.TodoNotFoundException;
+import com.srinath.todoservice.repositories.TodoSearchIndex;
+import com.srinath.todoservice.services.TodoSearchService;
+import com.srinath.todoservice.services.TodoService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Searches descriptions through a {@link TodoSearchIndex} held in memory. The index is built from an export
+ * of all todos once the application is ready and kept current from committed {@link TodoChangedEvent}s;
+ * changes committed during the build are applied too, and the version check in the index keeps whichever
+ * copy is newer. Matching todos are then read through {@link TodoService}, so results show current state.
+ */
+@Service
+@Slf4j
+public class TodoSearchServiceImpl implements TodoSearchService {
+
+    private final TodoService todoService;
+    private final TodoSearchProperties todoSearchProperties;
+    private final TodoSearchIndex index;
+
+    public TodoSearchServiceImpl(TodoService todoService, TodoSearchProperties todoSearchProperties) {
+        this.todoService = todoService;
+        this.todoSearchProperties = todoSearchProperties;
+        this.index = new TodoSearchIndex(todoSearchProperties.maxCandidates());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        long start = System.nanoTime();
+        todoService.exportTodos(todo -> index.index(todo.id(), todo.description(), todo.version()));
+        log.info("Search index built over {} todos in {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoChanged(TodoChangedEvent event) {
+        index.index(event.todo().id(), event.todo().description(), event.todo().version());
+    }
+
+    // Search covers the active todos only; archived ones can still be read by id
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodosArchived(TodosArchivedEvent event) {
+        event.todos().forEach(todo -> index.remove(todo.id()));
+    }
+
+    @Override
+    public TodoSearchResults searchTodos(String query, Integer limit, Integer offset) {
+        TodoRules.validateSearchQuery(query);
+        TodoRules.validatePageLimit(limit);
+        TodoRules.validateSearchOffset(offset, todoSearchProperties.maxCandidates());
+        // Ask for one extra id so we know whether a next page exists
+        List<UUID> ids = index.search(query, offset, limit + 1);
+        List<TodoDetails> items = new ArrayList<>(Math.min(ids.size(), limit));
+        for (UUID id : ids.subList(0, Math.min(ids.size(), limit))) {
+            try {
+                items.add(todoService.getTodoById(id));
+            } catch (TodoNotFoundException e) {
+                log.debug("Search hit {} no longer exists", id);
+            }
+        }
+        return new TodoSearchResults(items, ids.size() > limit ? offset + limit : null);
+    }
+}
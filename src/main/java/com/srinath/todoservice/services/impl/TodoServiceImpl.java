@@ -1,35 +1,71 @@
 package com.srinath.todoservice.services.impl;
 
+import com.srinath.todoservice.configs.PastDueProperties;
+import com.srinath.todoservice.configs.PastDueSweepProperties;
+import com.srinath.todoservice.dtos.BatchCreateItemResult;
+import com.srinath.todoservice.dtos.BatchCreateResponse;
+import com.srinath.todoservice.dtos.ChangeToken;
+import com.srinath.todoservice.dtos.PastDueSweepResult;
+import com.srinath.todoservice.dtos.TodoChange;
+import com.srinath.todoservice.dtos.TodoChanges;
+import com.srinath.todoservice.dtos.TodoCursor;
 import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.dtos.TodoDue;
+import com.srinath.todoservice.dtos.TodoIdRange;
+import com.srinath.todoservice.dtos.TodoPage;
+import com.srinath.todoservice.dtos.UpdateTodoStatusesResponse;
 import com.srinath.todoservice.entities.Todo;
+import com.srinath.todoservice.enums.TodoChangeType;
 import com.srinath.todoservice.enums.TodoStatus;
-import com.srinath.todoservice.exceptions.InvalidParameterException;
+import com.srinath.todoservice.events.TodoChangedEvent;
+import com.srinath.todoservice.events.TodosPastDueEvent;
+import com.srinath.todoservice.exceptions.ApiException;
 import com.srinath.todoservice.exceptions.TodoCannotBeModifiedException;
 import com.srinath.todoservice.exceptions.TodoNotFoundException;
 import com.srinath.todoservice.exceptions.statuscodes.StatusCodes;
+import com.srinath.todoservice.repositories.ArchivedTodoRepository;
 import com.srinath.todoservice.repositories.TodoRepository;
 import com.srinath.todoservice.requests.CreateTodoRequest;
 import com.srinath.todoservice.requests.UpdateTodoRequest;
 import com.srinath.todoservice.services.TodoService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@ConditionalOnProperty(name = "todo.storage", havingValue = "jpa", matchIfMissing = true)
 @Slf4j
 @RequiredArgsConstructor
 public class TodoServiceImpl implements TodoService {
 
     private final TodoRepository todoRepository;
+    private final ArchivedTodoRepository archivedTodoRepository;
+    private final PastDueSweepProperties pastDueSweepProperties;
+    private final PastDueProperties pastDueProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeSeqWatermark changeSeqWatermark;
 
     @Override
     public TodoDetails createTodoItem(CreateTodoRequest createTodoRequest) {
-        validateCreateRequest(createTodoRequest);
+        TodoRules.validateCreateRequest(createTodoRequest);
         Todo newTodo= Todo.builder()
                 .description(createTodoRequest.getDescription())
                 .createdAt(LocalDateTime.now())
@@ -37,90 +73,307 @@ public class TodoServiceImpl implements TodoService {
                 .dueDate(createTodoRequest.getDueDate())
                 .build();
         newTodo =todoRepository.save(newTodo);
-        return TodoDetails.fromEntity(newTodo);
+        return publish(TodoChangeType.CREATED, TodoDetails.fromEntity(newTodo));
     }
 
     @Override
-    public TodoDetails updateTodoDescription(UUID id, UpdateTodoRequest updateTodoRequest) {
-        Todo currentTodo = verifyAndGetTodoItemForUpdate(id);
+    @Transactional
+    public BatchCreateResponse createTodoItems(List<CreateTodoRequest> createTodoRequests) {
+        TodoRules.validateBatchSize(createTodoRequests);
+        LocalDateTime now = LocalDateTime.now();
+        BatchCreateItemResult[] results = new BatchCreateItemResult[createTodoRequests.size()];
+        List<Integer> validIndexes = new ArrayList<>();
+        List<Todo> newTodos = new ArrayList<>();
+        for (int i = 0; i < createTodoRequests.size(); i++) {
+            CreateTodoRequest createTodoRequest = createTodoRequests.get(i);
+            try {
+                TodoRules.validateCreateRequest(createTodoRequest);
+            } catch (ApiException e) {
+                results[i] = BatchCreateItemResult.failed(i, e.getStatusCode(), e.getStatusDescription());
+                continue;
+            }
+            validIndexes.add(i);
+            newTodos.add(Todo.builder()
+                    .description(createTodoRequest.getDescription())
+                    .createdAt(now)
+                    .status(TodoStatus.NOT_DONE)
+                    .dueDate(createTodoRequest.getDueDate())
+                    .build());
+        }
+        // Sent as JDBC batches of hibernate.jdbc.batch_size inserts within this one transaction
+        List<Todo> savedTodos = todoRepository.saveAll(newTodos);
+        for (int i = 0; i < savedTodos.size(); i++) {
+            int index = validIndexes.get(i);
+            results[index] = BatchCreateItemResult.created(index,
+                    publish(TodoChangeType.CREATED, TodoDetails.fromEntity(savedTodos.get(i))));
+        }
+        return new BatchCreateResponse(savedTodos.size(), results.length - savedTodos.size(), List.of(results));
+    }
+
+    @Override
+    public TodoDetails updateTodoDescription(UUID id, UpdateTodoRequest updateTodoRequest, Set<Long> expectedVersions) {
+        Todo currentTodo = verifyAndGetTodoItemForUpdate(id, expectedVersions);
         currentTodo.setDescription(updateTodoRequest.getDescription());
         currentTodo = todoRepository.save(currentTodo);
-        return TodoDetails.fromEntity(currentTodo);
+        return publish(TodoChangeType.DESCRIPTION_UPDATED, TodoDetails.fromEntity(currentTodo));
     }
 
     @Override
-    public TodoDetails markTodoAsDone(UUID id) {
-        Todo currentTodo = verifyAndGetTodoItemForUpdate(id);
+    public TodoDetails markTodoAsDone(UUID id, Set<Long> expectedVersions) {
+        Todo currentTodo = verifyAndGetTodoItemForUpdate(id, expectedVersions);
         if(!currentTodo.getStatus().equals(TodoStatus.DONE)){
             currentTodo.setStatus(TodoStatus.DONE);
             currentTodo.setCompletedAt(LocalDateTime.now());
             currentTodo = todoRepository.save(currentTodo);
+            return publish(TodoChangeType.MARKED_DONE, TodoDetails.fromEntity(currentTodo));
         }
         //If item is already in desired state. Return gracefully without throwing error
         return TodoDetails.fromEntity(currentTodo);
     }
 
     @Override
-    public TodoDetails markTodoAsNotDone(UUID id) {
-        Todo currentTodo = verifyAndGetTodoItemForUpdate(id);
+    public TodoDetails markTodoAsNotDone(UUID id, Set<Long> expectedVersions) {
+        Todo currentTodo = verifyAndGetTodoItemForUpdate(id, expectedVersions);
         if(!currentTodo.getStatus().equals(TodoStatus.NOT_DONE)){
             currentTodo.setStatus(TodoStatus.NOT_DONE);
             currentTodo.setCompletedAt(null);
             currentTodo = todoRepository.save(currentTodo);
+            return publish(TodoChangeType.MARKED_NOT_DONE, TodoDetails.fromEntity(currentTodo));
         }
         //If item is already in desired state. Return gracefully without throwing error
         return TodoDetails.fromEntity(currentTodo);
     }
 
     @Override
+    @Transactional
+    public UpdateTodoStatusesResponse updateTodoStatuses(List<UUID> ids, TodoStatus status) {
+        TodoRules.validateBatchSize(ids);
+        TodoRules.validateTargetStatus(status);
+        TodoStatus fromStatus = status == TodoStatus.DONE ? TodoStatus.NOT_DONE : TodoStatus.DONE;
+        LocalDateTime now = LocalDateTime.now();
+        Set<UUID> requestedIds = new LinkedHashSet<>(ids);
+        Map<UUID, Todo> todos = todoRepository.findAllById(requestedIds).stream()
+                .collect(Collectors.toMap(Todo::getId, Function.identity()));
+
+        List<UUID> unchanged = new ArrayList<>();
+        List<UUID> notFound = new ArrayList<>();
+        List<UUID> blocked = new ArrayList<>();
+        List<UUID> candidates = new ArrayList<>();
+        for (UUID id : requestedIds) {
+            Todo todo = todos.get(id);
+            if (todo == null) {
+                notFound.add(id);
+            } else if (isPastDue(todo)) {
+                blocked.add(id);
+            } else if (todo.getStatus() == status) {
+                unchanged.add(id);
+            } else {
+                candidates.add(id);
+            }
+        }
+        if (!notFound.isEmpty()) {
+            // Archived todos are all past their due date
+            List<UUID> archived = archivedTodoRepository.findIdsByIdIn(notFound);
+            notFound.removeAll(archived);
+            blocked.addAll(archived);
+        }
+        if (candidates.isEmpty()) {
+            return new UpdateTodoStatusesResponse(List.of(), unchanged, notFound, blocked);
+        }
+
+        LocalDateTime completedAt = status == TodoStatus.DONE ? now : null;
+        int updatedCount = todoRepository.updateStatusOfTodosNotDue(candidates, fromStatus, status, completedAt, now);
+        // Published from rows read after the update, so events carry the stored values, including edits made
+        // by others since the first read, rather than the stale entities patched up here
+        Map<UUID, TodoDetails> updated = todoRepository.findDetailsByIdIn(candidates).stream()
+                .collect(Collectors.toMap(TodoDetails::id, Function.identity()));
+        List<TodoDetails> changed = new ArrayList<>(candidates.size());
+        for (UUID id : candidates) {
+            TodoDetails todo = updated.get(id);
+            // When every row was updated, each one is ours. Otherwise some changed between the read and the
+            // update, so report what actually happened to each
+            if (todo != null && (updatedCount == candidates.size() || status.toString().equals(todo.status()))) {
+                changed.add(todo);
+            } else if (todo == null) {
+                notFound.add(id);
+            } else if (todo.dueDate().isBefore(now)) {
+                // Left alone by the update's due date check; a past due todo is due before now as well
+                blocked.add(id);
+            } else {
+                unchanged.add(id);
+            }
+        }
+        TodoChangeType changeType = status == TodoStatus.DONE ? TodoChangeType.MARKED_DONE
+                : TodoChangeType.MARKED_NOT_DONE;
+        changed.forEach(todo -> publish(changeType, todo));
+        return new UpdateTodoStatusesResponse(changed.stream().map(TodoDetails::id).toList(), unchanged, notFound,
+                blocked);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<TodoDetails> getAllTodos(Boolean includeAll) {
         if(Boolean.TRUE.equals(includeAll)){
-            return todoRepository.findAllByOrderByDueDateAsc().stream().map(TodoDetails::fromEntity).toList();
+            return derivePastDue(todoRepository.findAllDetails());
         }
-        return todoRepository.findAllByStatusOrderByDueDateAsc(TodoStatus.NOT_DONE)
-                .stream().map(TodoDetails::fromEntity).toList();
+        if (pastDueProperties.derived()) {
+            return todoRepository.findAllDetailsByStatusDueFrom(TodoStatus.NOT_DONE, LocalDateTime.now());
+        }
+        return todoRepository.findAllDetailsByStatus(TodoStatus.NOT_DONE);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public TodoPage getTodos(Boolean includeAll, Integer limit, String cursor) {
+        TodoRules.validatePageLimit(limit);
+        // Fetch one extra row so we know whether a next page exists without a count query
+        Limit fetchLimit = Limit.of(limit + 1);
+        TodoCursor after = cursor == null || cursor.isBlank() ? null : TodoCursor.decode(cursor);
+        List<TodoDetails> todos;
+        if (Boolean.TRUE.equals(includeAll)) {
+            todos = after == null ? todoRepository.findDetails(fetchLimit)
+                    : todoRepository.findDetailsAfter(after.dueDate(), after.id(), fetchLimit);
+            todos = derivePastDue(todos);
+        } else if (pastDueProperties.derived()) {
+            // A cursor from before now points at todos that have since fallen due, so start from now instead
+            LocalDateTime now = LocalDateTime.now();
+            todos = after == null || after.dueDate().isBefore(now)
+                    ? todoRepository.findDetailsByStatusDueFrom(TodoStatus.NOT_DONE, now, fetchLimit)
+                    : todoRepository.findDetailsByStatusAfter(TodoStatus.NOT_DONE, after.dueDate(), after.id(), fetchLimit);
+        } else {
+            todos = after == null ? todoRepository.findDetailsByStatus(TodoStatus.NOT_DONE, fetchLimit)
+                    : todoRepository.findDetailsByStatusAfter(TodoStatus.NOT_DONE, after.dueDate(), after.id(), fetchLimit);
+        }
+        List<TodoDetails> items = todos.size() > limit ? todos.subList(0, limit) : todos;
+        String next = todos.size() > limit ? TodoCursor.of(items.get(items.size() - 1)).encode() : null;
+        return new TodoPage(items, next);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TodoChanges getTodoChanges(String token, Integer limit) {
+        TodoRules.validatePageLimit(limit);
+        ChangeToken after = token == null || token.isBlank() ? ChangeToken.START : ChangeToken.decode(token);
+        // Fetch one extra row so we know whether more changes are waiting. Archived todos are no longer in the
+        // Todo table, so their moves come from the archive and are merged in change order
+        long upTo = changeSeqWatermark.safeChangeSeq();
+        List<TodoChange> changes = Stream.concat(
+                        todoRepository.findChangesAfter(after.changeSeq(), upTo, Limit.of(limit + 1)).stream(),
+                        archivedTodoRepository.findChangesAfter(after.changeSeq(), upTo, Limit.of(limit + 1)).stream())
+                .sorted(Comparator.comparingLong(TodoChange::changeSeq))
+                .limit(limit + 1)
+                .toList();
+        if (pastDueProperties.derived()) {
+            LocalDateTime now = LocalDateTime.now();
+            changes = changes.stream().map(change -> change.withTodo(change.todo().derivePastDue(now))).toList();
+        }
+        return TodoChanges.of(after, changes, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public TodoDetails getTodoById(UUID id) {
-        Optional<Todo> todoOptional = todoRepository.findById(id);
-        if (todoOptional.isEmpty()){
-            throw new TodoNotFoundException(StatusCodes.TODO_NOT_FOUND);
+        // Archived todos are rarely asked for by id, so only a miss on the active table looks in the archive
+        return todoRepository.findDetailsById(id)
+                .or(() -> archivedTodoRepository.findDetailsById(id))
+                .map(todo -> pastDueProperties.derived() ? todo.derivePastDue(LocalDateTime.now()) : todo)
+                .orElseThrow(() -> new TodoNotFoundException(StatusCodes.TODO_NOT_FOUND));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTodos(Consumer<TodoDetails> consumer) {
+        // Projections never enter the persistence context, so memory stays flat for any table size
+        try (Stream<TodoDetails> todos = todoRepository.streamAllDetails()) {
+            if (pastDueProperties.derived()) {
+                LocalDateTime now = LocalDateTime.now();
+                todos.forEach(todo -> consumer.accept(todo.derivePastDue(now)));
+            } else {
+                todos.forEach(consumer);
+            }
         }
-        return TodoDetails.fromEntity(todoOptional.get());
     }
 
     @Override
-    public void updatePastDueTodos() {
-        List<Todo> pastDueTodos = todoRepository.findAllByDueDateBeforeAndStatusNot(
-                LocalDateTime.now(),TodoStatus.PAST_DUE);
-        pastDueTodos.forEach(todo -> todo.setStatus(TodoStatus.PAST_DUE));
-        todoRepository.saveAll(pastDueTodos);
+    public PastDueSweepResult updatePastDueTodos(TodoIdRange range) {
+        LocalDateTime now = LocalDateTime.now();
+        int chunkSize = pastDueSweepProperties.chunkSize();
+        long deadline = System.nanoTime() + pastDueSweepProperties.timeBudget().toNanos();
+        int scannedCount = 0;
+        int updatedCount = 0;
+        List<TodoDue> chunk;
+        // One bulk UPDATE per chunk, each in its own short transaction, until nothing is left
+        // or the time budget is spent. Whatever remains is picked up by the next run.
+        do {
+            chunk = todoRepository.findDueByStatusAndDueDateBeforeInRange(TodoStatus.NOT_DONE, now,
+                    range.first(), range.last(), Limit.of(chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            scannedCount += chunk.size();
+            updatedCount += markTodosAsPastDue(chunk, now);
+        } while (chunk.size() == chunkSize && System.nanoTime() < deadline);
+        return new PastDueSweepResult(scannedCount, updatedCount);
+    }
+
+    @Override
+    public int markTodosAsPastDue(List<TodoDue> todos) {
+        return markTodosAsPastDue(todos, LocalDateTime.now());
+    }
+
+    @Override
+    public List<TodoDue> getNotDoneTodosDueBetween(LocalDateTime dueFrom, LocalDateTime dueBefore) {
+        return todoRepository.findDueByStatusAndDueDateBetween(TodoStatus.NOT_DONE, dueFrom, dueBefore);
     }
 
-    private void validateCreateRequest(CreateTodoRequest createTodoRequest){
-        if (createTodoRequest.getDescription() == null ||
-                createTodoRequest.getDescription().trim().isEmpty()) {
-            throw new InvalidParameterException(StatusCodes.DESCRIPTION_NOT_EMPTY);
+    @Override
+    public long countNotDoneTodosDueBefore(LocalDateTime dueBefore) {
+        return todoRepository.countByStatusAndDueDateBefore(TodoStatus.NOT_DONE, dueBefore);
+    }
+
+    @Override
+    public Map<TodoStatus, Long> countTodosByStatus() {
+        Map<TodoStatus, Long> counts = new EnumMap<>(TodoStatus.class);
+        todoRepository.countGroupedByStatus().forEach(count -> counts.put(count.status(), count.count()));
+        return counts;
+    }
+
+    private int markTodosAsPastDue(List<TodoDue> todos, LocalDateTime now) {
+        int updatedCount = todoRepository.updateStatusOfDueTodos(todos.stream().map(TodoDue::id).toList(),
+                TodoStatus.NOT_DONE, TodoStatus.PAST_DUE, now);
+        if (updatedCount == 0) {
+            return 0;
         }
+        // Todos completed or flipped elsewhere since they were selected were left alone; only report the rest
+        List<TodoDue> marked = updatedCount == todos.size() ? todos
+                : todoRepository.findDueByIdInAndStatus(todos.stream().map(TodoDue::id).toList(), TodoStatus.PAST_DUE);
+        eventPublisher.publishEvent(new TodosPastDueEvent(marked, now));
+        return updatedCount;
+    }
 
-        if (createTodoRequest.getDueDate() == null ||
-                createTodoRequest.getDueDate().isBefore(LocalDateTime.now())) {
-            throw new InvalidParameterException(StatusCodes.DUE_DATE_CANNOT_BE_PAST);
+    private List<TodoDetails> derivePastDue(List<TodoDetails> todos) {
+        if (!pastDueProperties.derived()) {
+            return todos;
         }
+        LocalDateTime now = LocalDateTime.now();
+        return todos.stream().map(todo -> todo.derivePastDue(now)).toList();
+    }
+
+    private TodoDetails publish(TodoChangeType type, TodoDetails todo) {
+        eventPublisher.publishEvent(new TodoChangedEvent(type, todo));
+        return todo;
     }
 
     private boolean isPastDue(Todo todo) {
-        return todo.getStatus() == TodoStatus.PAST_DUE ||
-                todo.getDueDate().isBefore(LocalDateTime.now());
+        return TodoRules.isPastDue(todo.getStatus(), todo.getDueDate());
     }
 
-    private Todo verifyAndGetTodoItemForUpdate(UUID id){
-        Todo currentTodo = todoRepository.findById(id)
-                .orElseThrow(() -> new TodoNotFoundException(StatusCodes.TODO_NOT_FOUND));
-        if(isPastDue(currentTodo)){
-            throw new TodoCannotBeModifiedException(StatusCodes.PAST_TODO_CONNOT_MODIFY);
-        }
+    private Todo verifyAndGetTodoItemForUpdate(UUID id, Set<Long> expectedVersions){
+        Todo currentTodo = todoRepository.findById(id).orElseThrow(() -> archivedTodoRepository.existsById(id)
+                ? new TodoCannotBeModifiedException(StatusCodes.PAST_TODO_CONNOT_MODIFY)
+                : new TodoNotFoundException(StatusCodes.TODO_NOT_FOUND));
+        TodoRules.verifyModifiable(currentTodo.getStatus(), currentTodo.getDueDate(), currentTodo.getVersion(),
+                expectedVersions);
         return currentTodo;
     }
 }
@@ -0,0 +1,221 @@
+package com.srinath.todoservice.services.impl;
+
+import com.srinath.todoservice.configs.PastDueProperties;
+import com.srinath.todoservice.configs.TodoStatsProperties;
+import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.dtos.TodoDue;
+import com.srinath.todoservice.dtos.TodoStats;
+import com.srinath.todoservice.enums.TodoStatus;
+import com.srinath.todoservice.events.TodoChangedEvent;
+import com.srinath.todoservice.events.TodosArchivedEvent;
+import com.srinath.todoservice.events.TodosPastDueEvent;
+import com.srinath.todoservice.services.TodoService;
+import com.srinath.todoservice.services.TodoStatsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serves todo stats from counters kept in memory, so a read costs the same however many todos exist.
+ * <p>
+ * Committed changes move todos between per-status counters, and not done todos are also counted per
+ * minute of their due date. Due soon and overdue totals add up those minutes, at most one per minute of
+ * the due soon window; minutes already past are folded into a single overdue count at each check. When past
+ * due is derived, overdue not done todos are reported as past due. A past due event lists only the todos it
+ * flipped, so each one is moved once. Archived todos are no longer counted. A periodic check against counts
+ * taken from the store corrects any drift, such as a todo the timer and the sweep flip at the same moment
+ * being reported by both; a change committed while that check reads the store can leave a count off by one
+ * until the next check.
+ */
+@Service
+@Slf4j
+public class TodoStatsServiceImpl implements TodoStatsService {
+
+    private final TodoService todoService;
+    private final TodoStatsProperties todoStatsProperties;
+    private final PastDueProperties pastDueProperties;
+    private final Counter corrections;
+    // Filled for every status up front and never changed after, so reads need no locking
+    private final Map<TodoStatus, LongAdder> byStatus = new EnumMap<>(TodoStatus.class);
+    // Not done todos by the epoch minute they fall due, from foldedBefore on
+    private final ConcurrentSkipListMap<Long, LongAdder> notDoneByDueMinute = new ConcurrentSkipListMap<>();
+    // Not done todos due before foldedBefore
+    private final LongAdder overdueNotDone = new LongAdder();
+    private volatile long foldedBefore = Long.MIN_VALUE;
+    private volatile LocalDateTime checkedAt;
+
+    public TodoStatsServiceImpl(TodoService todoService, TodoStatsProperties todoStatsProperties,
+                                PastDueProperties pastDueProperties, MeterRegistry meterRegistry) {
+        this.todoService = todoService;
+        this.todoStatsProperties = todoStatsProperties;
+        this.pastDueProperties = pastDueProperties;
+        for (TodoStatus status : TodoStatus.values()) {
+            byStatus.put(status, new LongAdder());
+        }
+        this.corrections = Counter.builder("todo.stats.corrections")
+                .description("Drift in the todo stats counters corrected by the periodic check")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public TodoStats getStats() {
+        long now = minuteOf(LocalDateTime.now());
+        long notDone = byStatus.get(TodoStatus.NOT_DONE).sum();
+        long done = byStatus.get(TodoStatus.DONE).sum();
+        long pastDue = byStatus.get(TodoStatus.PAST_DUE).sum();
+        long notDoneOverdue = overdueNotDone.sum() + sum(notDoneByDueMinute.headMap(now));
+        long dueSoon = sum(notDoneByDueMinute.subMap(now, now + todoStatsProperties.dueSoonWindow().toMinutes()));
+        long overdue = pastDue + notDoneOverdue;
+        if (pastDueProperties.derived()) {
+            notDone -= notDoneOverdue;
+            pastDue = overdue;
+        }
+        return new TodoStats(notDone + done + pastDue, notDone, done, pastDue, overdue, dueSoon,
+                todoStatsProperties.dueSoonWindow(), checkedAt);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodoChanged(TodoChangedEvent event) {
+        TodoDetails todo = event.todo();
+        // Marking only publishes when the status changed, so each type is a single known transition
+        switch (event.type()) {
+            case CREATED -> addNotDone(todo.dueDate(), 1);
+            case MARKED_DONE -> {
+                addNotDone(todo.dueDate(), -1);
+                byStatus.get(TodoStatus.DONE).increment();
+            }
+            case MARKED_NOT_DONE -> {
+                byStatus.get(TodoStatus.DONE).decrement();
+                addNotDone(todo.dueDate(), 1);
+            }
+            case DESCRIPTION_UPDATED -> { }
+        }
+    }
+
+    // The event lists only the todos that were still not done when the update ran
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodosPastDue(TodosPastDueEvent event) {
+        for (TodoDue todo : event.todos()) {
+            addNotDone(todo.dueDate(), -1);
+        }
+        byStatus.get(TodoStatus.PAST_DUE).add(event.todos().size());
+    }
+
+    // Stats cover the active todos only
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTodosArchived(TodosArchivedEvent event) {
+        if (event.status() == TodoStatus.NOT_DONE) {
+            event.todos().forEach(todo -> addNotDone(todo.dueDate(), -1));
+        } else {
+            byStatus.get(event.status()).add(-event.todos().size());
+        }
+    }
+
+    /**
+     * Brings the counters in line with the store. Minutes already past are folded into the overdue count
+     * first. Status counts then come from a grouped count, the overdue count from a count of not done todos
+     * due before this minute, and due minutes are rebuilt for not done todos due within the due soon window.
+     * Corrections are applied as differences from the counters read just before, so changes landing during
+     * the check are kept.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedRateString = "${todo.stats.reconcile-interval:PT5M}",
+            initialDelayString = "${todo.stats.reconcile-interval:PT5M}")
+    public void reconcile() {
+        LocalDateTime now = LocalDateTime.now();
+        long nowMinute = minuteOf(now);
+        long windowEnd = nowMinute + todoStatsProperties.dueSoonWindow().toMinutes();
+        fold(nowMinute);
+        Map<TodoStatus, Long> statusesBefore = new EnumMap<>(TodoStatus.class);
+        byStatus.forEach((status, count) -> statusesBefore.put(status, count.sum()));
+        long overdueBefore = overdueNotDone.sum();
+        Map<Long, Long> minutesBefore = new HashMap<>();
+        notDoneByDueMinute.headMap(windowEnd).forEach((minute, count) -> minutesBefore.put(minute, count.sum()));
+
+        Map<TodoStatus, Long> statuses = todoService.countTodosByStatus();
+        long overdue = todoService.countNotDoneTodosDueBefore(startOf(nowMinute));
+        Map<Long, Long> minutes = new HashMap<>();
+        for (TodoDue todo : todoService.getNotDoneTodosDueBetween(startOf(nowMinute), startOf(windowEnd))) {
+            minutes.merge(minuteOf(todo.dueDate()), 1L, Long::sum);
+        }
+
+        long drift = Math.abs(overdue - overdueBefore);
+        overdueNotDone.add(overdue - overdueBefore);
+        for (TodoStatus status : TodoStatus.values()) {
+            long difference = statuses.getOrDefault(status, 0L) - statusesBefore.get(status);
+            byStatus.get(status).add(difference);
+            drift += Math.abs(difference);
+        }
+        Set<Long> checkedMinutes = new HashSet<>(minutesBefore.keySet());
+        checkedMinutes.addAll(minutes.keySet());
+        for (Long minute : checkedMinutes) {
+            long difference = minutes.getOrDefault(minute, 0L) - minutesBefore.getOrDefault(minute, 0L);
+            if (difference != 0) {
+                bucket(minute).add(difference);
+                drift += Math.abs(difference);
+            }
+        }
+        if (drift > 0 && checkedAt != null) {
+            log.info("Corrected todo stats counters by {}", drift);
+            corrections.increment(drift);
+        }
+        checkedAt = now;
+    }
+
+    // Past minutes only ever count down, through the sweep, so a change racing the move is rare and the
+    // count check right after puts it right
+    private void fold(long beforeMinute) {
+        foldedBefore = beforeMinute;
+        Map<Long, LongAdder> past = notDoneByDueMinute.headMap(beforeMinute);
+        for (Map.Entry<Long, LongAdder> entry : past.entrySet()) {
+            if (past.remove(entry.getKey(), entry.getValue())) {
+                overdueNotDone.add(entry.getValue().sum());
+            }
+        }
+    }
+
+    private void addNotDone(LocalDateTime dueDate, long delta) {
+        byStatus.get(TodoStatus.NOT_DONE).add(delta);
+        long minute = minuteOf(dueDate);
+        if (minute < foldedBefore) {
+            overdueNotDone.add(delta);
+        } else {
+            bucket(minute).add(delta);
+        }
+    }
+
+    private LongAdder bucket(long minute) {
+        return notDoneByDueMinute.computeIfAbsent(minute, key -> new LongAdder());
+    }
+
+    private static long minuteOf(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static LocalDateTime startOf(long minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
+
+    private static long sum(Map<Long, LongAdder> counts) {
+        long sum = 0;
+        for (LongAdder count : counts.values()) {
+            sum += count.sum();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,2 @@
+-- Runs before Hibernate creates the tables. Feeds Todo.changeSeq, which the delta sync endpoint pages by.
+create sequence if not exists todo_change_seq;
@@ -0,0 +1,94 @@
+package com.srinath.todoservice;
+
+import com.srinath.todoservice.dtos.TodoChanges;
+import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.entities.Todo;
+import com.srinath.todoservice.enums.TodoStatus;
+import com.srinath.todoservice.repositories.TodoRepository;
+import com.srinath.todoservice.requests.CreateTodoRequest;
+import com.srinath.todoservice.services.TodoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"todo.sync.commit-lag=1s", "todo.sync.sample-interval=PT0.05S"})
+@ActiveProfiles("test")
+class ChangeSyncCommitLagTests {
+
+	@Autowired
+	private TodoService todoService;
+
+	@Autowired
+	private TodoRepository todoRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void slowWriterIsNotSkippedBySyncingClients() throws Exception {
+		// The slow writer takes its change sequence number first and commits well after the fast one
+		CountDownLatch numbered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<UUID> slow = CompletableFuture.supplyAsync(() ->
+				new TransactionTemplate(transactionManager).execute(status -> {
+					Todo todo = todoRepository.saveAndFlush(Todo.builder()
+							.description("Slow writer")
+							.status(TodoStatus.NOT_DONE)
+							.createdAt(LocalDateTime.now())
+							.dueDate(LocalDateTime.now().plusDays(1))
+							.build());
+					numbered.countDown();
+					await(release);
+					return todo.getId();
+				}));
+		assertTrue(numbered.await(5, TimeUnit.SECONDS));
+		TodoDetails fast = todoService.createTodoItem(
+				new CreateTodoRequest("Fast writer", LocalDateTime.now().plusDays(1)));
+
+		Set<UUID> seen = new HashSet<>();
+		String token = sync(null, seen);
+		release.countDown();
+		UUID slowId = slow.get(5, TimeUnit.SECONDS);
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!seen.contains(fast.id()) && System.nanoTime() < deadline) {
+			Thread.sleep(50);
+			token = sync(token, seen);
+		}
+
+		assertTrue(seen.contains(fast.id()));
+		assertTrue(seen.contains(slowId));
+	}
+
+	// Pages through everything the service hands out now and gives the token to carry on from
+	private String sync(String token, Set<UUID> seen) {
+		TodoChanges changes;
+		do {
+			changes = todoService.getTodoChanges(token, 500);
+			changes.items().forEach(todo -> seen.add(todo.id()));
+			token = changes.token();
+		} while (changes.hasMore());
+		return token;
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,82 @@
+package com.srinath.todoservice;
+
+import com.srinath.todoservice.entities.Todo;
+import com.srinath.todoservice.enums.TodoStatus;
+import com.srinath.todoservice.repositories.TodoRepository;
+import com.srinath.todoservice.schedulers.PastDueTimer;
+import com.srinath.todoservice.schedulers.TodoScheduler;
+import com.srinath.todoservice.services.TodoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"todo.past-due.mode=derived", "todo.past-due-timer.enabled=true"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DerivedPastDueModeTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Autowired
+	private TodoService todoService;
+
+	@Autowired
+	private TodoRepository todoRepository;
+
+	@Test
+	void pastDueIsReadFromTheDueDateAndNeverWritten() {
+		assertTrue(context.getBeansOfType(TodoScheduler.class).isEmpty());
+		assertTrue(context.getBeansOfType(PastDueTimer.class).isEmpty());
+		Todo todo = todoRepository.save(Todo.builder()
+				.description("Fell due a minute ago")
+				.status(TodoStatus.NOT_DONE)
+				.createdAt(LocalDateTime.now().minusDays(1))
+				.dueDate(LocalDateTime.now().minusMinutes(1))
+				.build());
+
+		// Read twice so the second read comes from the cache
+		assertEquals("past due", todoService.getTodoById(todo.getId()).status());
+		assertEquals("past due", todoService.getTodoById(todo.getId()).status());
+		assertEquals(TodoStatus.NOT_DONE, todoRepository.findById(todo.getId()).orElseThrow().getStatus());
+		assertTrue(todoService.getAllTodos(false).stream().noneMatch(details -> details.id().equals(todo.getId())));
+	}
+
+	@Test
+	void eTagTaggedBeforeTheDueDateNoLongerMatchesOnceItPasses() throws Exception {
+		Todo todo = todoRepository.save(Todo.builder()
+				.description("Fell due a second ago")
+				.status(TodoStatus.NOT_DONE)
+				.createdAt(LocalDateTime.now().minusDays(1))
+				.dueDate(LocalDateTime.now().minusSeconds(1))
+				.build());
+
+		// The version is unchanged since the client last read it as not done
+		mockMvc.perform(get("/api/v1/todo/{id}", todo.getId())
+						.header(HttpHeaders.IF_NONE_MATCH, "\"" + todo.getVersion() + "\""))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"" + todo.getVersion() + "-pd\""))
+				.andExpect(jsonPath("$.status").value("past due"));
+		mockMvc.perform(get("/api/v1/todo/{id}", todo.getId())
+						.header(HttpHeaders.IF_NONE_MATCH, "\"" + todo.getVersion() + "-pd\""))
+				.andExpect(status().isNotModified());
+	}
+
+}
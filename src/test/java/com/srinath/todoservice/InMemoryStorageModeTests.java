@@ -0,0 +1,45 @@
+package com.srinath.todoservice;
+
+import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.repositories.InMemoryTodoStore;
+import com.srinath.todoservice.repositories.TodoRepository;
+import com.srinath.todoservice.requests.CreateTodoRequest;
+import com.srinath.todoservice.services.TodoService;
+import com.srinath.todoservice.services.impl.InMemoryTodoServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@SpringBootTest(properties = "todo.storage=memory")
+@ActiveProfiles("test")
+class InMemoryStorageModeTests {
+
+	@Autowired
+	private TodoService todoService;
+
+	@Autowired
+	private InMemoryTodoStore todoStore;
+
+	@Autowired
+	private TodoRepository todoRepository;
+
+	@Test
+	void todosAreServedFromMemoryInsteadOfTheDatabase() {
+		assertInstanceOf(InMemoryTodoServiceImpl.class, todoService);
+		long rowsBefore = todoRepository.count();
+
+		TodoDetails created = todoService.createTodoItem(
+				new CreateTodoRequest("Kept in memory", LocalDateTime.now().plusDays(1)));
+
+		assertEquals(created, todoService.getTodoById(created.id()));
+		assertEquals(1, todoStore.size());
+		assertEquals(rowsBefore, todoRepository.count());
+	}
+
+}
@@ -0,0 +1,31 @@
+package com.srinath.todoservice;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.web.embedded.TomcatVirtualThreadsWebServerFactoryCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "virtual-threads"})
+class VirtualThreadsModeTests {
+
+	@Autowired
+	private ApplicationContext applicationContext;
+
+	@Test
+	void requestsSchedulingAndAsyncWorkUseVirtualThreads() {
+		applicationContext.getBean(TomcatVirtualThreadsWebServerFactoryCustomizer.class);
+		assertInstanceOf(SimpleAsyncTaskScheduler.class, applicationContext.getBean("taskScheduler"));
+		SimpleAsyncTaskExecutor executor = assertInstanceOf(SimpleAsyncTaskExecutor.class,
+				applicationContext.getBean("applicationTaskExecutor"));
+		assertTrue(executor.isActive());
+	}
+
+}
@@ -1,24 +1,41 @@
 package com.srinath.todoservice.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.srinath.todoservice.configs.SmileConfig;
+import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.dtos.TodoStats;
 import com.srinath.todoservice.entities.Todo;
 import com.srinath.todoservice.enums.TodoStatus;
+import com.srinath.todoservice.repositories.ArchivedTodoRepository;
 import com.srinath.todoservice.repositories.TodoRepository;
 import com.srinath.todoservice.requests.CreateTodoRequest;
 import com.srinath.todoservice.requests.UpdateTodoRequest;
+import com.srinath.todoservice.requests.UpdateTodoStatusesRequest;
+import com.srinath.todoservice.services.TodoArchiveService;
+import com.srinath.todoservice.services.TodoService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -36,6 +53,18 @@ class TodoControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private ArchivedTodoRepository archivedTodoRepository;
+
+    @Autowired
+    private TodoArchiveService todoArchiveService;
+
     private LocalDateTime futureDate;
     private LocalDateTime pastDate;
     Todo testTodo;
@@ -45,6 +74,7 @@ class TodoControllerTest {
 
         // Clear database
         todoRepository.deleteAll();
+        archivedTodoRepository.deleteAll();
         // Setup test data
         LocalDateTime now = LocalDateTime.now();
         futureDate = now.plusDays(1);
@@ -263,4 +293,559 @@ class TodoControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void testGetTodos_PagesThroughAllItems() throws Exception {
+
+        Todo laterTodo = Todo.builder()
+                .description("Later Description")
+                .status(TodoStatus.NOT_DONE)
+                .createdAt(LocalDateTime.now())
+                .dueDate(futureDate.plusDays(1))
+                .build();
+        laterTodo = todoRepository.save(laterTodo);
+
+        String response = mockMvc.perform(get("/api/v1/todo?limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id", is(testTodo.getId().toString())))
+                .andExpect(jsonPath("$.next", notNullValue()))
+                .andReturn().getResponse().getContentAsString();
+        String next = objectMapper.readTree(response).get("next").asText();
+
+        mockMvc.perform(get("/api/v1/todo?limit=1&cursor={cursor}", next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id", is(laterTodo.getId().toString())))
+                .andExpect(jsonPath("$.next", nullValue()));
+    }
+
+    @Test
+    void testGetTodos_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/v1/todo?limit=10&cursor=not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetTodos_InvalidLimit() throws Exception {
+        mockMvc.perform(get("/api/v1/todo?limit=0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetTodoChanges_ReturnsOnlyTodosChangedSinceToken() throws Exception {
+        String token = objectMapper.readTree(mockMvc.perform(get("/api/v1/todo/changes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.hasMore", is(false)))
+                .andReturn().getResponse().getContentAsString()).get("token").asText();
+
+        mockMvc.perform(get("/api/v1/todo/changes").param("token", token))
+                .andExpect(jsonPath("$.items", hasSize(0)))
+                .andExpect(jsonPath("$.token", is(token)));
+
+        mockMvc.perform(patch("/api/v1/todo/{id}/done", testTodo.getId()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/todo/changes").param("token", token))
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id", is(testTodo.getId().toString())))
+                .andExpect(jsonPath("$.items[0].status", is("done")));
+    }
+
+    @Test
+    void testGetTodoChanges_IncludesTodosMarkedPastDueBySweep() throws Exception {
+        Todo overdue = todoRepository.save(Todo.builder()
+                .description("Overdue")
+                .status(TodoStatus.NOT_DONE)
+                .createdAt(pastDate.minusDays(1))
+                .dueDate(pastDate)
+                .build());
+        String token = objectMapper.readTree(mockMvc.perform(get("/api/v1/todo/changes"))
+                .andReturn().getResponse().getContentAsString()).get("token").asText();
+
+        todoService.updatePastDueTodos();
+
+        mockMvc.perform(get("/api/v1/todo/changes").param("token", token))
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id", is(overdue.getId().toString())))
+                .andExpect(jsonPath("$.items[0].status", is("past due")));
+    }
+
+    @Test
+    void testGetTodoChanges_PagesThroughChanges() throws Exception {
+        todoRepository.save(Todo.builder()
+                .description("Second")
+                .status(TodoStatus.NOT_DONE)
+                .createdAt(LocalDateTime.now())
+                .dueDate(futureDate)
+                .build());
+
+        String token = objectMapper.readTree(mockMvc.perform(get("/api/v1/todo/changes").param("limit", "1"))
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.hasMore", is(true)))
+                .andReturn().getResponse().getContentAsString()).get("token").asText();
+
+        mockMvc.perform(get("/api/v1/todo/changes").param("token", token).param("limit", "1"))
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].description", is("Second")))
+                .andExpect(jsonPath("$.hasMore", is(false)));
+    }
+
+    @Test
+    void testGetTodoChanges_InvalidToken() throws Exception {
+        mockMvc.perform(get("/api/v1/todo/changes").param("token", "not-a-token"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSearchTodos_FindsCreatedAndRenamedTodos() throws Exception {
+        mockMvc.perform(post("/api/v1/todo")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateTodoRequest("Renew passport", futureDate))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(put("/api/v1/todo/{id}", testTodo.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UpdateTodoRequest("Book passport photos"))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/todo/search").param("q", "pass"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.nextOffset", nullValue()));
+        mockMvc.perform(get("/api/v1/todo/search").param("q", "passport photo"))
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id", is(testTodo.getId().toString())));
+        mockMvc.perform(get("/api/v1/todo/search").param("q", "pass").param("limit", "1"))
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.nextOffset", is(1)));
+    }
+
+    @Test
+    void testSearchTodos_QueryWithoutWords() throws Exception {
+        mockMvc.perform(get("/api/v1/todo/search").param("q", " ?! "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetTodoStats_CountsCreatedAndCompletedTodos() throws Exception {
+        TodoStats before = getStats();
+        String body = mockMvc.perform(post("/api/v1/todo")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateTodoRequest("Pay rent",
+                                LocalDateTime.now().plusHours(2)))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        TodoDetails created = objectMapper.readValue(body, TodoDetails.class);
+
+        TodoStats afterCreate = getStats();
+        assertEquals(before.notDone() + 1, afterCreate.notDone());
+        assertEquals(before.dueSoon() + 1, afterCreate.dueSoon());
+
+        mockMvc.perform(patch("/api/v1/todo/{id}/done", created.id()))
+                .andExpect(status().isOk());
+
+        TodoStats afterDone = getStats();
+        assertEquals(before.notDone(), afterDone.notDone());
+        assertEquals(before.done() + 1, afterDone.done());
+        assertEquals(before.total() + 1, afterDone.total());
+        assertEquals(before.dueSoon(), afterDone.dueSoon());
+    }
+
+    @Test
+    void testExportTodos_StreamsNdjson() throws Exception {
+
+        Todo doneTodo = Todo.builder()
+                .description("Done Description")
+                .status(TodoStatus.DONE)
+                .createdAt(LocalDateTime.now())
+                .dueDate(futureDate.plusDays(1))
+                .build();
+        todoRepository.save(doneTodo);
+
+        MvcResult asyncResult = mockMvc.perform(get("/api/v1/todo/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(testTodo.getId().toString(),
+                objectMapper.readTree(lines[0]).get("id").asText());
+        assertEquals("done",
+                objectMapper.readTree(lines[1]).get("status").asText());
+    }
+
+    @Test
+    void testExportTodos_StreamsSmileWhenAsked() throws Exception {
+        MvcResult asyncResult = mockMvc.perform(get("/api/v1/todo/export").accept(SmileConfig.APPLICATION_SMILE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SmileConfig.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<TodoDetails> todos = smileMapper().readerFor(TodoDetails.class).<TodoDetails>readValues(body).readAll();
+        assertEquals(1, todos.size());
+        assertEquals(testTodo.getId(), todos.get(0).id());
+    }
+
+    @Test
+    void testSmile_IsUsedForRequestsAndResponsesWhenAsked() throws Exception {
+        byte[] created = mockMvc.perform(post("/api/v1/todo")
+                        .contentType(SmileConfig.APPLICATION_SMILE)
+                        .accept(SmileConfig.APPLICATION_SMILE)
+                        .content(smileMapper().writeValueAsBytes(new CreateTodoRequest("Pack bags", futureDate))))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(SmileConfig.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals("Pack bags", smileMapper().readValue(created, TodoDetails.class).description());
+
+        byte[] todos = mockMvc.perform(get("/api/v1/todo").accept(SmileConfig.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SmileConfig.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(2, smileMapper().readValue(todos, TodoDetails[].class).length);
+
+        // Anything else, including no Accept header, still gets JSON
+        mockMvc.perform(get("/api/v1/todo").accept(MediaType.ALL))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    void testGetTodoById_ReflectsUpdateAfterBeingCached() throws Exception {
+        mockMvc.perform(get("/api/v1/todo/{id}", testTodo.getId()))
+                .andExpect(jsonPath("$.description", is("Test Description")));
+
+        mockMvc.perform(put("/api/v1/todo/{id}", testTodo.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UpdateTodoRequest("Updated description"))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/todo/{id}", testTodo.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description", is("Updated description")));
+    }
+
+    @Test
+    void testGetTodoById_ReflectsPastDueSweepAfterBeingCached() throws Exception {
+        Todo overdueTodo = Todo.builder()
+                .description("Test Description")
+                .status(TodoStatus.NOT_DONE)
+                .createdAt(pastDate.minusDays(1))
+                .dueDate(pastDate)
+                .build();
+        overdueTodo = todoRepository.save(overdueTodo);
+
+        mockMvc.perform(get("/api/v1/todo/{id}", overdueTodo.getId()))
+                .andExpect(jsonPath("$.status", is("not done")));
+
+        todoService.updatePastDueTodos();
+
+        mockMvc.perform(get("/api/v1/todo/{id}", overdueTodo.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("past due")));
+    }
+
+    @Test
+    void testGetTodoById_CacheStatsAreExposed() throws Exception {
+        mockMvc.perform(get("/api/v1/todo/{id}", testTodo.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/todo/{id}", testTodo.getId())).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/metrics/cache.gets").param("tag", "cache:todos", "result:hit"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value", greaterThanOrEqualTo(1.0)));
+    }
+
+    @Test
+    void testCreateTodoItems_ReportsInvalidItemsWithoutFailingBatch() throws Exception {
+        List<CreateTodoRequest> requests = List.of(
+                new CreateTodoRequest("First", futureDate),
+                new CreateTodoRequest("", futureDate),
+                new CreateTodoRequest("Third", futureDate.plusHours(1)));
+
+        mockMvc.perform(post("/api/v1/todo/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(2)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.results[0].todo.description", is("First")))
+                .andExpect(jsonPath("$.results[1].todo", nullValue()))
+                .andExpect(jsonPath("$.results[1].statusCode", is("1001")))
+                .andExpect(jsonPath("$.results[2].todo.description", is("Third")));
+
+        assertEquals(3, todoRepository.count());
+    }
+
+    @Test
+    void testCreateTodoItems_EmptyBatch() throws Exception {
+        mockMvc.perform(post("/api/v1/todo/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testUpdateTodoStatuses_ReportsEachOutcome() throws Exception {
+        Todo doneTodo = todoRepository.save(Todo.builder()
+                .description("Done Description")
+                .status(TodoStatus.DONE)
+                .createdAt(LocalDateTime.now())
+                .dueDate(futureDate)
+                .build());
+        Todo pastDueTodo = todoRepository.save(Todo.builder()
+                .description("Past Due Description")
+                .status(TodoStatus.PAST_DUE)
+                .createdAt(pastDate.minusDays(1))
+                .dueDate(pastDate)
+                .build());
+        UUID missingId = UUID.randomUUID();
+        UpdateTodoStatusesRequest request = new UpdateTodoStatusesRequest(
+                List.of(testTodo.getId(), doneTodo.getId(), pastDueTodo.getId(), missingId), TodoStatus.DONE);
+
+        mockMvc.perform(patch("/api/v1/todo/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed", contains(testTodo.getId().toString())))
+                .andExpect(jsonPath("$.unchanged", contains(doneTodo.getId().toString())))
+                .andExpect(jsonPath("$.blocked", contains(pastDueTodo.getId().toString())))
+                .andExpect(jsonPath("$.notFound", contains(missingId.toString())));
+
+        mockMvc.perform(get("/api/v1/todo/{id}", testTodo.getId()))
+                .andExpect(jsonPath("$.status", is("done")))
+                .andExpect(jsonPath("$.completedAt", notNullValue()));
+    }
+
+    @Test
+    void testUpdateTodoStatuses_PastDueIsNotAValidTarget() throws Exception {
+        UpdateTodoStatusesRequest request = new UpdateTodoStatusesRequest(
+                List.of(testTodo.getId()), TodoStatus.PAST_DUE);
+
+        mockMvc.perform(patch("/api/v1/todo/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetTodoById_NotModifiedWhenETagMatches() throws Exception {
+        String eTag = mockMvc.perform(get("/api/v1/todo/{id}", testTodo.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/todo/{id}", testTodo.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testUpdateTodoDescription_WithCurrentETag() throws Exception {
+        UpdateTodoRequest request = new UpdateTodoRequest("Updated description");
+
+        mockMvc.perform(put("/api/v1/todo/{id}", testTodo.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.version", is(1)));
+    }
+
+    @Test
+    void testUpdateTodoStatuses_CachedETagMatchesStoredVersion() throws Exception {
+        mockMvc.perform(get("/api/v1/todo/{id}", testTodo.getId()))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+        mockMvc.perform(patch("/api/v1/todo/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UpdateTodoStatusesRequest(List.of(testTodo.getId()), TodoStatus.DONE))))
+                .andExpect(status().isOk());
+
+        long storedVersion = todoRepository.findById(testTodo.getId()).orElseThrow().getVersion();
+        String eTag = mockMvc.perform(get("/api/v1/todo/{id}", testTodo.getId()))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + storedVersion + "\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(patch("/api/v1/todo/{id}/not-done", testTodo.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testUpdateTodoDescription_WithStaleETag() throws Exception {
+        UpdateTodoRequest request = new UpdateTodoRequest("Updated description");
+        mockMvc.perform(put("/api/v1/todo/{id}", testTodo.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(patch("/api/v1/todo/{id}/done", testTodo.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/api/v1/todo/{id}", testTodo.getId()))
+                .andExpect(jsonPath("$.status", is("not done")));
+    }
+
+    @Test
+    void testUpdateTodoDescription_AnyListedETagMatches() throws Exception {
+        UpdateTodoRequest request = new UpdateTodoRequest("Updated description");
+
+        mockMvc.perform(put("/api/v1/todo/{id}", testTodo.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"7\", \"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+    }
+
+    @Test
+    void testMarkTodoAsDone_WeakETagNeverMatches() throws Exception {
+        mockMvc.perform(patch("/api/v1/todo/{id}/done", testTodo.getId())
+                        .header(HttpHeaders.IF_MATCH, "W/\"0\""))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/api/v1/todo/{id}", testTodo.getId()))
+                .andExpect(jsonPath("$.status", is("not done")));
+    }
+
+    @Test
+    void testStreamTodoEvents_PushesCommittedChanges() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/api/v1/todo/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(patch("/api/v1/todo/{id}/done", testTodo.getId()))
+                .andExpect(status().isOk());
+
+        String events = awaitEvents(stream, "event:marked-done");
+        assertTrue(events.contains(testTodo.getId().toString()), events);
+    }
+
+    @Test
+    void testStreamTodoEvents_ResumesAfterLastEventId() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/v1/todo/events")).andReturn();
+        mockMvc.perform(patch("/api/v1/todo/{id}/done", testTodo.getId()))
+                .andExpect(status().isOk());
+        Matcher seen = Pattern.compile("id:([0-9a-f]+-\\d+)\nevent:marked-done")
+                .matcher(awaitEvents(first, "event:marked-done"));
+        assertTrue(seen.find());
+
+        mockMvc.perform(patch("/api/v1/todo/{id}/not-done", testTodo.getId()))
+                .andExpect(status().isOk());
+        MvcResult resumed = mockMvc.perform(get("/api/v1/todo/events").header("Last-Event-ID", seen.group(1)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String events = awaitEvents(resumed, "event:marked-not-done");
+        assertFalse(events.contains("event:marked-done"), events);
+    }
+
+    @Test
+    void testStreamTodoEvents_UnknownLastEventIdAsksClientToReload() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/api/v1/todo/events").param("lastEventId", "999999999"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        awaitEvents(stream, "event:reset");
+    }
+
+    @Test
+    void testStreamTodoEvents_LastEventIdFromEarlierStartAsksClientToReload() throws Exception {
+        // Not hex, so never this instance's epoch
+        MvcResult stream = mockMvc.perform(get("/api/v1/todo/events").header("Last-Event-ID", "zzzzzzzz-1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        awaitEvents(stream, "event:reset");
+    }
+
+    // Events are written by the feed's executor, so give them a moment to arrive
+    @Test
+    void testArchiveTodos_MovesOldTodosOutOfListingsButKeepsThemReadable() throws Exception {
+        //Arrange
+        LocalDateTime longAgo = LocalDateTime.now().minusDays(40);
+        Todo doneTodo = todoRepository.save(Todo.builder().description("Filed taxes").status(TodoStatus.DONE)
+                .createdAt(longAgo.minusDays(1)).dueDate(longAgo).completedAt(longAgo).build());
+        Todo pastDueTodo = todoRepository.save(Todo.builder().description("Missed dentist").status(TodoStatus.PAST_DUE)
+                .createdAt(longAgo.minusDays(1)).dueDate(longAgo).build());
+        Todo recentlyDone = todoRepository.save(Todo.builder().description("Bought milk").status(TodoStatus.DONE)
+                .createdAt(pastDate.minusDays(1)).dueDate(pastDate).completedAt(pastDate).build());
+        //Act
+        int archived = todoArchiveService.archiveTodos(LocalDateTime.now().minusDays(30));
+        //Assert
+        assertEquals(2, archived);
+        mockMvc.perform(get("/api/v1/todo?includeAll=true"))
+                .andExpect(jsonPath("$[*].id", containsInAnyOrder(testTodo.getId().toString(),
+                        recentlyDone.getId().toString())));
+        mockMvc.perform(get("/api/v1/todo/archive").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.next", notNullValue()));
+        mockMvc.perform(get("/api/v1/todo/{id}", doneTodo.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("done")))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + doneTodo.getVersion() + "\""));
+        mockMvc.perform(patch("/api/v1/todo/{id}/not-done", pastDueTodo.getId()))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("Past due")));
+    }
+
+    @Test
+    void testGetTodoChanges_ReportsArchivedTodosAfterTheirLastChange() throws Exception {
+        //Arrange
+        LocalDateTime longAgo = LocalDateTime.now().minusDays(40);
+        Todo doneTodo = todoRepository.save(Todo.builder().description("Filed taxes").status(TodoStatus.DONE)
+                .createdAt(longAgo.minusDays(1)).dueDate(longAgo).completedAt(longAgo).build());
+        String token = objectMapper.readTree(mockMvc.perform(get("/api/v1/todo/changes"))
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.archived", hasSize(0)))
+                .andReturn().getResponse().getContentAsString()).get("token").asText();
+        //Act
+        todoArchiveService.archiveTodos(LocalDateTime.now().minusDays(30));
+        //Assert
+        String next = objectMapper.readTree(mockMvc.perform(get("/api/v1/todo/changes").param("token", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(0)))
+                .andExpect(jsonPath("$.archived", contains(doneTodo.getId().toString())))
+                .andReturn().getResponse().getContentAsString()).get("token").asText();
+        mockMvc.perform(get("/api/v1/todo/changes").param("token", next))
+                .andExpect(jsonPath("$.archived", hasSize(0)));
+    }
+
+    private ObjectMapper smileMapper() {
+        return smileHttpMessageConverter.getObjectMapper();
+    }
+
+    private TodoStats getStats() throws Exception {
+        String body = mockMvc.perform(get("/api/v1/todo/stats"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, TodoStats.class);
+    }
+
+    private String awaitEvents(MvcResult stream, String expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String events = stream.getResponse().getContentAsString();
+        while (!containsWholeEvent(events, expected) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            events = stream.getResponse().getContentAsString();
+        }
+        assertTrue(containsWholeEvent(events, expected), events);
+        return events;
+    }
+
+    // An event is written a field at a time; the blank line after its data marks the end
+    private static boolean containsWholeEvent(String events, String expected) {
+        int start = events.indexOf(expected);
+        return start >= 0 && events.indexOf("\n\n", start) >= 0;
+    }
 }
@@ -0,0 +1,58 @@
+package com.srinath.todoservice.exceptions.handlers;
+
+import com.srinath.todoservice.entities.Todo;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExceptionHandlerAdviceTest {
+
+    private final ExceptionHandlerAdvice advice = new ExceptionHandlerAdvice();
+
+    @Test
+    void testOptimisticLockingFailure_WithIfMatchIsPreconditionFailed() {
+        //Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_MATCH, "\"0\"");
+        //Act
+        ResponseEntity<Object> response = advice.handleObjectOptimisticLockingFailureException(
+                lockingFailure(), new ServletWebRequest(request));
+        //Assert
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+    }
+
+    @Test
+    void testOptimisticLockingFailure_WithoutIfMatchIsConflict() {
+        //Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        //Act
+        ResponseEntity<Object> response = advice.handleObjectOptimisticLockingFailureException(
+                lockingFailure(), new ServletWebRequest(request));
+        //Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
+    @Test
+    void testOptimisticLockingFailure_WithIfMatchAnyIsConflict() {
+        //Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_MATCH, "*");
+        //Act
+        ResponseEntity<Object> response = advice.handleObjectOptimisticLockingFailureException(
+                lockingFailure(), new ServletWebRequest(request));
+        //Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
+    private static ObjectOptimisticLockingFailureException lockingFailure() {
+        return new ObjectOptimisticLockingFailureException(Todo.class, UUID.randomUUID());
+    }
+}
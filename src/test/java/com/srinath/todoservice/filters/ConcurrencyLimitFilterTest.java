@@ -0,0 +1,66 @@
+package com.srinath.todoservice.filters;
+
+import com.srinath.todoservice.configs.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ConcurrencyLimitFilter(new ConcurrencyLimitProperties(true, 1, 1, 1, 10, 1.5, 0.2,
+                Duration.ofSeconds(2)), meterRegistry);
+    }
+
+    @Test
+    void testRequestOverLimit_IsRejectedWithRetryAfter() throws Exception {
+        //Arrange
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        // The second read arrives while the first is still in the chain
+        FilterChain slowRead = (request, response) ->
+                filter.doFilter(request("GET", "/api/v1/todo"), rejected, (innerRequest, innerResponse) -> { });
+        //Act
+        filter.doFilter(request("GET", "/api/v1/todo/stats"), new MockHttpServletResponse(), slowRead);
+        //Assert
+        assertEquals(503, rejected.getStatus());
+        assertEquals("2", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(rejected.getContentAsString().contains("3001"));
+        assertEquals(1, meterRegistry.get("todo.concurrency.rejected").tag("type", "read").counter().count());
+        assertEquals(0, meterRegistry.get("todo.concurrency.inflight").tag("type", "read").gauge().value());
+    }
+
+    @Test
+    void testReadsAndWrites_HaveSeparateLimits() throws Exception {
+        //Arrange
+        MockHttpServletResponse write = new MockHttpServletResponse();
+        MockHttpServletResponse export = new MockHttpServletResponse();
+        FilterChain slowRead = (request, response) -> {
+            filter.doFilter(request("POST", "/api/v1/todo"), write, (innerRequest, innerResponse) -> { });
+            filter.doFilter(request("GET", "/api/v1/todo/export"), export, (innerRequest, innerResponse) -> { });
+        };
+        //Act
+        filter.doFilter(request("GET", "/api/v1/todo"), new MockHttpServletResponse(), slowRead);
+        //Assert
+        assertEquals(200, write.getStatus());
+        assertEquals(200, export.getStatus());
+        assertEquals(1, meterRegistry.get("todo.concurrency.limit").tag("type", "write").gauge().value());
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        return new MockHttpServletRequest(method, uri);
+    }
+}
@@ -0,0 +1,64 @@
+package com.srinath.todoservice.filters;
+
+import com.srinath.todoservice.configs.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradientConcurrencyLimitTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    // One request per window and no smoothing, so every release adjusts the limit in full
+    private final GradientConcurrencyLimit limit = new GradientConcurrencyLimit(
+            new ConcurrencyLimitProperties(true, 20, 4, 200, 1, 1.5, 1.0, Duration.ofSeconds(1)));
+
+    @Test
+    void testTryAcquire_RejectsOnceLimitIsInFlight() {
+        //Arrange
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+        //Act
+        boolean acquired = limit.tryAcquire();
+        //Assert
+        assertFalse(acquired);
+        assertEquals(20, limit.getInflight());
+    }
+
+    @Test
+    void testRelease_GrowsWhileBusyAndFastThenShrinksWhenLatencyRises() {
+        //Arrange
+        acquire(15);
+        //Act
+        limit.release(MILLIS);
+        int afterFastWindow = limit.getLimit();
+        limit.release(10 * MILLIS);
+        int afterSlowWindow = limit.getLimit();
+        //Assert
+        assertEquals(24, afterFastWindow);
+        assertEquals(17, afterSlowWindow);
+    }
+
+    @Test
+    void testRelease_DoesNotGrowWhenMostOfTheLimitIsUnused() {
+        //Arrange
+        acquire(2);
+        //Act
+        limit.release(MILLIS);
+        limit.release(MILLIS);
+        //Assert
+        assertEquals(20, limit.getLimit());
+        assertEquals(0, limit.getInflight());
+    }
+
+    private void acquire(int count) {
+        for (int i = 0; i < count; i++) {
+            limit.tryAcquire();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.srinath.todoservice.repositories;
+
+import com.srinath.todoservice.configs.TodoJournalProperties;
+import com.srinath.todoservice.enums.FsyncPolicy;
+import com.srinath.todoservice.enums.TodoStatus;
+import com.srinath.todoservice.repositories.InMemoryTodoStore.StoredTodo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileTodoJournalTest {
+
+    private static final LocalDateTime DUE_DATE = LocalDateTime.now().plusDays(1).withNano(123_456_789);
+
+    @TempDir
+    private Path directory;
+
+    private final List<FileTodoJournal> journals = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        journals.forEach(FileTodoJournal::close);
+    }
+
+    @Test
+    void testRecover_RebuildsStoreFromLog() {
+        //Arrange
+        InMemoryTodoStore store = new InMemoryTodoStore(open(FsyncPolicy.ALWAYS, DataSize.ofKilobytes(64)));
+        StoredTodo first = store.insert(todo("First"));
+        StoredTodo second = store.insert(todo("Second with ünïcode"));
+        StoredTodo done = store.update(first.id(), todo -> todo.withStatus(TodoStatus.DONE, LocalDateTime.now()))
+                .orElseThrow().after();
+        //Act
+        InMemoryTodoStore recovered = reopen(FsyncPolicy.ALWAYS);
+        //Assert
+        assertEquals(done, recovered.findById(first.id()).orElseThrow());
+        assertEquals(second, recovered.findById(second.id()).orElseThrow());
+        assertEquals(List.of(second), recovered.findByStatus(TodoStatus.NOT_DONE, null, null, 10));
+    }
+
+    @Test
+    void testRecover_RollsSegmentsWhenFull() throws IOException {
+        //Arrange
+        InMemoryTodoStore store = new InMemoryTodoStore(open(FsyncPolicy.NEVER, DataSize.ofKilobytes(4)));
+        for (int i = 0; i < 200; i++) {
+            store.insert(todo("Todo " + i));
+        }
+        journals.get(0).close();
+        //Act
+        InMemoryTodoStore recovered = reopen(FsyncPolicy.NEVER);
+        //Assert
+        assertTrue(segmentCount() > 2);
+        assertEquals(200, recovered.size());
+    }
+
+    @Test
+    void testCompact_SnapshotPlusLogTailRecoversLatestState() throws IOException {
+        //Arrange
+        FileTodoJournal journal = open(FsyncPolicy.INTERVAL, DataSize.ofKilobytes(64));
+        InMemoryTodoStore store = new InMemoryTodoStore(journal);
+        StoredTodo kept = store.insert(todo("Before snapshot"));
+        StoredTodo changedLater = store.insert(todo("Changed after snapshot"));
+        //Act
+        int snapshotCount = journal.compact(store::forEach);
+        StoredTodo updated = store.update(changedLater.id(), todo -> todo.withDescription("Updated")).orElseThrow().after();
+        StoredTodo added = store.insert(todo("After snapshot"));
+        journal.close();
+        InMemoryTodoStore recovered = reopen(FsyncPolicy.INTERVAL);
+        //Assert
+        assertEquals(2, snapshotCount);
+        assertTrue(Files.exists(directory.resolve(FileTodoJournal.SNAPSHOT_FILE)));
+        assertEquals(2, segmentCount());
+        assertEquals(3, recovered.size());
+        assertEquals(kept, recovered.findById(kept.id()).orElseThrow());
+        assertEquals(updated, recovered.findById(changedLater.id()).orElseThrow());
+        assertEquals(added, recovered.findById(added.id()).orElseThrow());
+    }
+
+    @Test
+    void testRecover_StopsAtTornRecord() throws IOException {
+        //Arrange
+        InMemoryTodoStore store = new InMemoryTodoStore(open(FsyncPolicy.ALWAYS, DataSize.ofKilobytes(64)));
+        StoredTodo first = store.insert(todo("Intact"));
+        StoredTodo second = store.insert(todo("Torn by a crash"));
+        journals.get(0).close();
+        try (Stream<Path> files = Files.list(directory);
+             RandomAccessFile segment = new RandomAccessFile(files.findFirst().orElseThrow().toFile(), "rw")) {
+            // Flip a byte in the description of the second record
+            long secondRecordEnd = recordSize(first) + recordSize(second);
+            segment.seek(secondRecordEnd - 1);
+            segment.write(0);
+        }
+        //Act
+        InMemoryTodoStore recovered = reopen(FsyncPolicy.ALWAYS);
+        //Assert
+        assertEquals(1, recovered.size());
+        assertEquals(first, recovered.findById(first.id()).orElseThrow());
+    }
+
+    @Test
+    void testAppend_ConcurrentWritersAreAllDurableWithGroupCommit() {
+        //Arrange
+        InMemoryTodoStore store = new InMemoryTodoStore(open(FsyncPolicy.ALWAYS, DataSize.ofMegabytes(1)));
+        //Act
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 400; i++) {
+                int number = i;
+                executor.submit(() -> store.insert(todo("Concurrent " + number)));
+            }
+        }
+        //Assert
+        assertEquals(400, reopen(FsyncPolicy.ALWAYS).size());
+    }
+
+    @Test
+    void testCompact_KeepsEveryWriteAcknowledgedWhileCompacting() {
+        //Arrange
+        // Widens the gap between a record being appended and the store publishing it
+        FileTodoJournal journal = new FileTodoJournal(new TodoJournalProperties(directory, DataSize.ofKilobytes(64),
+                FsyncPolicy.NEVER, Duration.ofMillis(10))) {
+            @Override
+            public long append(StoredTodo todo) {
+                long sequence = super.append(todo);
+                LockSupport.parkNanos(100_000);
+                return sequence;
+            }
+        };
+        journals.add(journal);
+        InMemoryTodoStore store = new InMemoryTodoStore(journal);
+        Map<UUID, StoredTodo> acknowledged = new ConcurrentHashMap<>();
+        //Act
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            CompletableFuture<?>[] writers = new CompletableFuture<?>[4];
+            for (int i = 0; i < writers.length; i++) {
+                writers[i] = CompletableFuture.runAsync(() -> {
+                    for (int j = 0; j < 500; j++) {
+                        StoredTodo created = store.insert(todo("Written while compacting " + j));
+                        acknowledged.put(created.id(), created);
+                        StoredTodo done = store.update(created.id(),
+                                todo -> todo.withStatus(TodoStatus.DONE, LocalDateTime.now())).orElseThrow().after();
+                        acknowledged.put(done.id(), done);
+                    }
+                }, executor);
+            }
+            CompletableFuture<Void> written = CompletableFuture.allOf(writers);
+            while (!written.isDone()) {
+                journal.compact(store::forEach);
+            }
+            written.join();
+        }
+        journal.close();
+        InMemoryTodoStore recovered = reopen(FsyncPolicy.NEVER);
+        //Assert
+        assertEquals(acknowledged.size(), recovered.size());
+        acknowledged.values().forEach(todo -> assertEquals(todo, recovered.findById(todo.id()).orElseThrow()));
+    }
+
+    private FileTodoJournal open(FsyncPolicy fsync, DataSize segmentSize) {
+        FileTodoJournal journal = new FileTodoJournal(
+                new TodoJournalProperties(directory, segmentSize, fsync, Duration.ofMillis(10)));
+        journals.add(journal);
+        return journal;
+    }
+
+    private InMemoryTodoStore reopen(FsyncPolicy fsync) {
+        return new InMemoryTodoStore(open(fsync, DataSize.ofKilobytes(64)));
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log")).count();
+        }
+    }
+
+    private static int recordSize(StoredTodo todo) {
+        return TodoRecordCodec.recordSize(todo, TodoRecordCodec.encodeDescription(todo));
+    }
+
+    private static StoredTodo todo(String description) {
+        return new StoredTodo(UUID.randomUUID(), description, TodoStatus.NOT_DONE, LocalDateTime.now(), DUE_DATE,
+                null, 0L);
+    }
+}
@@ -0,0 +1,129 @@
+package com.srinath.todoservice.repositories;
+
+import com.srinath.todoservice.dtos.TodoChange;
+import com.srinath.todoservice.enums.TodoStatus;
+import com.srinath.todoservice.repositories.InMemoryTodoStore.StoredTodo;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryTodoStoreTest {
+
+    private static final LocalDateTime DUE_DATE = LocalDateTime.now().plusDays(1);
+    private static final int WRITERS = 8;
+    private static final int TODOS_PER_WRITER = 500;
+
+    @Test
+    void testInsert_JournalFailureLeavesStoreUnchanged() {
+        //Arrange
+        FailingJournal journal = new FailingJournal();
+        InMemoryTodoStore store = new InMemoryTodoStore(journal);
+        StoredTodo todo = todo("Not journaled");
+        journal.failing = true;
+        //Act
+        assertThrows(UncheckedIOException.class, () -> store.insert(todo));
+        //Assert
+        assertTrue(store.findById(todo.id()).isEmpty());
+        assertEquals(0, store.size());
+        assertEquals(List.of(), store.findByStatus(TodoStatus.NOT_DONE, null, null, 10));
+        assertEquals(List.of(), store.findAll(null, null, 10));
+        assertEquals(List.of(), store.findChangesAfter(0, 10));
+    }
+
+    @Test
+    void testUpdate_JournalFailureLeavesTodoAsItWas() {
+        //Arrange
+        FailingJournal journal = new FailingJournal();
+        InMemoryTodoStore store = new InMemoryTodoStore(journal);
+        StoredTodo todo = store.insert(todo("Journaled"));
+        long changeSeq = store.findChangesAfter(0, 10).get(0).changeSeq();
+        journal.failing = true;
+        //Act
+        assertThrows(UncheckedIOException.class, () -> store.update(todo.id(),
+                current -> current.withStatus(TodoStatus.DONE, LocalDateTime.now())));
+        //Assert
+        assertEquals(todo, store.findById(todo.id()).orElseThrow());
+        assertEquals(List.of(todo), store.findByStatus(TodoStatus.NOT_DONE, null, null, 10));
+        assertEquals(List.of(), store.findByStatus(TodoStatus.DONE, null, null, 10));
+        assertEquals(List.of(), store.findChangesAfter(changeSeq, 10));
+    }
+
+    @Test
+    void testFindChangesAfter_ConcurrentWritesAreNeverSkipped() {
+        //Arrange
+        InMemoryTodoStore store = new InMemoryTodoStore();
+        Set<UUID> seen = new HashSet<>();
+        long token = 0;
+        //Act
+        try (ExecutorService executor = Executors.newFixedThreadPool(WRITERS)) {
+            CompletableFuture<?>[] writers = new CompletableFuture<?>[WRITERS];
+            for (int i = 0; i < WRITERS; i++) {
+                writers[i] = CompletableFuture.runAsync(() -> {
+                    for (int j = 0; j < TODOS_PER_WRITER; j++) {
+                        StoredTodo todo = store.insert(todo("Concurrent " + j));
+                        store.update(todo.id(), current -> current.withDescription("Renamed " + todo.id()));
+                    }
+                }, executor);
+            }
+            CompletableFuture<Void> written = CompletableFuture.allOf(writers);
+            while (!written.isDone()) {
+                token = sync(store, token, seen);
+            }
+            written.join();
+        }
+        long before;
+        do {
+            before = token;
+            token = sync(store, token, seen);
+        } while (token != before);
+        //Assert
+        assertEquals(WRITERS * TODOS_PER_WRITER, seen.size());
+    }
+
+    // One sync call: records the todos returned and gives the next token
+    private static long sync(InMemoryTodoStore store, long token, Set<UUID> seen) {
+        List<TodoChange> changes = store.findChangesAfter(token, 50);
+        changes.forEach(change -> seen.add(change.todo().id()));
+        return changes.isEmpty() ? token : changes.get(changes.size() - 1).changeSeq();
+    }
+
+    private static StoredTodo todo(String description) {
+        return new StoredTodo(UUID.randomUUID(), description, TodoStatus.NOT_DONE, LocalDateTime.now(), DUE_DATE,
+                null, 0L);
+    }
+
+    private static class FailingJournal implements TodoJournal {
+
+        private boolean failing;
+
+        @Override
+        public void recover(Consumer<StoredTodo> consumer) {
+        }
+
+        @Override
+        public long append(StoredTodo todo) {
+            if (failing) {
+                throw new UncheckedIOException(new IOException("Disk full"));
+            }
+            return 0;
+        }
+
+        @Override
+        public void awaitDurable(long sequence) {
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.srinath.todoservice.repositories;
+
+import com.srinath.todoservice.dtos.TodoIdRange;
+import com.srinath.todoservice.entities.Todo;
+import com.srinath.todoservice.enums.TodoStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs H2 EXPLAIN on the SQL Hibernate generates for the list and sweep queries and fails
+ * if any of them falls back to a table scan.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.srinath.todoservice.repositories.RecordingStatementInspector")
+class TodoRepositoryQueryPlanTest {
+
+    private static final String TABLE_SCAN = "tableScan";
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private final UUID id = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        List<Todo> todos = IntStream.range(0, 500).mapToObj(i -> Todo.builder()
+                .description("Todo " + i)
+                .status(TodoStatus.values()[i % TodoStatus.values().length])
+                .createdAt(now)
+                .dueDate(now.plusMinutes(i - 250))
+                .build()).toList();
+        todoRepository.saveAllAndFlush(todos);
+        jdbcTemplate.execute("ANALYZE");
+        RecordingStatementInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void testFirstPageByStatus_UsesStatusDueDateIndex() {
+        todoRepository.findDetailsByStatus(TodoStatus.NOT_DONE, Limit.of(10));
+
+        assertIndexUsed("idx_todo_status_due_date", TodoStatus.NOT_DONE.ordinal(), 10);
+    }
+
+    @Test
+    void testNextPageByStatus_UsesStatusDueDateIndex() {
+        todoRepository.findDetailsByStatusAfter(TodoStatus.NOT_DONE, now, id, Limit.of(10));
+
+        String plan = assertIndexUsed("idx_todo_status_due_date", TodoStatus.NOT_DONE.ordinal(), now, now, id, 10);
+        assertTrue(plan.contains("DUE_DATE >= ?2"), plan);
+    }
+
+    @Test
+    void testFirstPage_UsesDueDateIndex() {
+        todoRepository.findDetails(Limit.of(10));
+
+        assertIndexUsed("idx_todo_due_date", 10);
+    }
+
+    @Test
+    void testNextPage_UsesDueDateIndex() {
+        todoRepository.findDetailsAfter(now, id, Limit.of(10));
+
+        String plan = assertIndexUsed("idx_todo_due_date", now, now, id, 10);
+        assertTrue(plan.contains("DUE_DATE >= ?1"), plan);
+    }
+
+    @Test
+    void testPastDueSweep_UsesStatusDueDateIndex() {
+        todoRepository.findDueByStatusAndDueDateBefore(TodoStatus.NOT_DONE, now, Limit.of(10));
+
+        assertIndexUsed("idx_todo_status_due_date", TodoStatus.NOT_DONE.ordinal(), now, 10);
+    }
+
+    @Test
+    void testPartitionedPastDueSweep_UsesStatusDueDateIndex() {
+        TodoIdRange range = TodoIdRange.partitions(4).get(1);
+        todoRepository.findDueByStatusAndDueDateBeforeInRange(TodoStatus.NOT_DONE, now, range.first(), range.last(),
+                Limit.of(10));
+
+        assertIndexUsed("idx_todo_status_due_date", TodoStatus.NOT_DONE.ordinal(), now, range.first(), range.last(),
+                10);
+    }
+
+    @Test
+    void testDeltaSync_UsesChangeSeqIndex() {
+        todoRepository.findChangesAfter(100, 200, Limit.of(10));
+
+        assertIndexUsed("idx_todo_change_seq", 100, 200, 10);
+    }
+
+    @Test
+    void testSyncWatermark_UsesChangeSeqIndex() {
+        todoRepository.findMaxChangeSeq();
+
+        assertIndexUsed("idx_todo_change_seq");
+    }
+
+    @Test
+    void testDerivedPastDueList_UsesStatusDueDateIndex() {
+        todoRepository.findDetailsByStatusDueFrom(TodoStatus.NOT_DONE, now, Limit.of(10));
+
+        String plan = assertIndexUsed("idx_todo_status_due_date", TodoStatus.NOT_DONE.ordinal(), now, 10);
+        assertTrue(plan.contains("DUE_DATE >= ?2"), plan);
+    }
+
+    @Test
+    void testOverdueCount_UsesStatusDueDateIndex() {
+        todoRepository.countByStatusAndDueDateBefore(TodoStatus.NOT_DONE, now);
+
+        assertIndexUsed("idx_todo_status_due_date", TodoStatus.NOT_DONE.ordinal(), now);
+    }
+
+    @Test
+    void testStatsCount_UsesStatusDueDateIndex() {
+        todoRepository.countGroupedByStatus();
+
+        assertIndexUsed("idx_todo_status_due_date");
+    }
+
+    private String assertIndexUsed(String indexName, Object... parameters) {
+        assertEquals(1, RecordingStatementInspector.STATEMENTS.size());
+        String sql = RecordingStatementInspector.STATEMENTS.get(0);
+        List<Object> arguments = new ArrayList<>(List.of(parameters));
+        assertEquals(sql.chars().filter(c -> c == '?').count(), arguments.size(), sql);
+
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, arguments.toArray());
+
+        assertFalse(plan.contains(TABLE_SCAN), plan);
+        assertTrue(plan.toLowerCase().contains(indexName), plan);
+        return plan;
+    }
+}
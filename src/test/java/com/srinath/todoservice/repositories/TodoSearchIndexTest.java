@@ -0,0 +1,129 @@
+package com.srinath.todoservice.repositories;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TodoSearchIndexTest {
+
+    private final TodoSearchIndex index = new TodoSearchIndex(10_000);
+
+    @Test
+    void testTokenize_SplitsOnPunctuationAndLowerCases() {
+        assertEquals(List.of("buy", "milk", "2", "litres", "café"), TodoSearchIndex.tokenize("Buy MILK: 2 litres, café!"));
+    }
+
+    @Test
+    void testSearch_MatchesEveryWordAsWholeWordOrPrefix() {
+        //Arrange
+        UUID groceries = index(0, "Buy groceries for the week");
+        UUID gross = index(0, "Gross margin report");
+        index(0, "Buy a new bike");
+        //Act
+        List<UUID> hits = index.search("buy gro", 0, 10);
+        //Assert
+        assertEquals(List.of(groceries), hits);
+        assertEquals(2, index.search("gro", 0, 10).size());
+        assertTrue(index.search("report", 0, 10).contains(gross));
+    }
+
+    @Test
+    void testSearch_RanksWholeWordsAboveTheirPrefixesAndShortDescriptionsAboveLongOnes() {
+        //Arrange
+        UUID prefixMatch = index(0, "Taxes return");
+        UUID longMatch = index(0, "Tax return paperwork for the accountant");
+        UUID shortMatch = index(0, "Tax return");
+        //Act
+        List<UUID> hits = index.search("tax", 0, 10);
+        //Assert
+        assertEquals(List.of(shortMatch, prefixMatch, longMatch), hits);
+    }
+
+    @Test
+    void testSearch_PagesWithOffset() {
+        //Arrange
+        for (int i = 0; i < 5; i++) {
+            index(0, "Water plants " + i);
+        }
+        //Act
+        List<UUID> all = index.search("water", 0, 5);
+        List<UUID> secondPage = index.search("water", 2, 2);
+        //Assert
+        assertEquals(all.subList(2, 4), secondPage);
+    }
+
+    @Test
+    void testSearch_MoreMatchesThanMaxCandidatesRanksTheShortestAndPagesStably() {
+        //Arrange
+        TodoSearchIndex capped = new TodoSearchIndex(10);
+        List<UUID> byLength = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            byLength.add(UUID.randomUUID());
+        }
+        List<Integer> order = IntStream.range(0, 50).boxed().collect(Collectors.toList());
+        Collections.shuffle(order, new Random(42));
+        for (int i : order) {
+            // Todo i has i filler words, so it ranks i-th
+            String filler = IntStream.range(0, i).mapToObj(word -> "filler" + word).collect(Collectors.joining(" "));
+            capped.index(byLength.get(i), "Buy milk " + filler, 0);
+        }
+        //Act
+        List<UUID> firstPage = capped.search("milk", 0, 5);
+        List<UUID> secondPage = capped.search("milk", 5, 5);
+        //Assert
+        assertEquals(byLength.subList(0, 5), firstPage);
+        assertEquals(byLength.subList(5, 10), secondPage);
+        assertEquals(firstPage, capped.search("milk", 0, 5));
+    }
+
+    @Test
+    void testIndex_NewDescriptionLengthMovesTodoInRanking() {
+        //Arrange
+        UUID shortened = index(0, "Pay rent before the first of the month");
+        UUID other = index(0, "Pay rent monthly");
+        //Act
+        index.index(shortened, "Pay rent", 1);
+        //Assert
+        assertEquals(List.of(shortened, other), index.search("rent", 0, 10));
+    }
+
+    @Test
+    void testIndex_ReplacesWordsOfNewerVersionOnly() {
+        //Arrange
+        UUID id = index(0, "Call the plumber");
+        index.index(id, "Call the electrician", 1);
+        //Act
+        index.index(id, "Call the plumber", 0);
+        //Assert
+        assertEquals(List.of(), index.search("plumber", 0, 10));
+        assertEquals(List.of(id), index.search("electrician", 0, 10));
+    }
+
+    @Test
+    void testRemove_DropsTodoAndWordsOnlyItHad() {
+        //Arrange
+        UUID removed = index(0, "Renew passport");
+        UUID kept = index(0, "Renew car insurance");
+        //Act
+        index.remove(removed);
+        //Assert
+        assertEquals(List.of(kept), index.search("renew", 0, 10));
+        assertEquals(List.of(), index.search("passport", 0, 10));
+        assertEquals(1, index.size());
+    }
+
+    private UUID index(long version, String description) {
+        UUID id = UUID.randomUUID();
+        index.index(id, description, version);
+        return id;
+    }
+}
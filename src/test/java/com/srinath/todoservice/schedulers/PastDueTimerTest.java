@@ -0,0 +1,103 @@
+package com.srinath.todoservice.schedulers;
+
+import com.srinath.todoservice.configs.PastDueTimerProperties;
+import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.dtos.TodoDue;
+import com.srinath.todoservice.enums.TodoChangeType;
+import com.srinath.todoservice.enums.TodoStatus;
+import com.srinath.todoservice.events.TodoChangedEvent;
+import com.srinath.todoservice.services.TodoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PastDueTimerTest {
+
+    @Mock
+    private TodoService todoService;
+
+    private PastDueTimer pastDueTimer;
+
+    @BeforeEach
+    void setUp() {
+        pastDueTimer = new PastDueTimer(todoService, new PastDueTimerProperties(Duration.ofMinutes(15), 500),
+                new MockEnvironment());
+    }
+
+    @AfterEach
+    void tearDown() {
+        pastDueTimer.stop();
+    }
+
+    @Test
+    void testStart_FlipsTodoLoadedAtStartupWhenItFallsDue() {
+        //Arrange
+        TodoDue todoDue = new TodoDue(UUID.randomUUID(), LocalDateTime.now().plus(Duration.ofMillis(100)));
+        when(todoService.getNotDoneTodosDueBetween(any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(List.of(todoDue));
+        LocalDateTime startedAt = LocalDateTime.now();
+        //Act
+        pastDueTimer.start();
+        //Assert
+        verify(todoService, timeout(2000)).markTodosAsPastDue(List.of(todoDue));
+        // Todos already overdue are left to the sweep
+        verify(todoService).getNotDoneTodosDueBetween(argThat(from -> !from.isBefore(startedAt)),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    void testOnTodoChanged_CreatedTodoIsFlippedAtDueDate() {
+        //Arrange
+        when(todoService.getNotDoneTodosDueBetween(any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(List.of());
+        pastDueTimer.start();
+        TodoDetails todo = todoDetails(LocalDateTime.now().plus(Duration.ofMillis(100)));
+        //Act
+        pastDueTimer.onTodoChanged(new TodoChangedEvent(TodoChangeType.CREATED, todo));
+        //Assert
+        verify(todoService, timeout(2000)).markTodosAsPastDue(List.of(new TodoDue(todo.id(), todo.dueDate())));
+    }
+
+    @Test
+    void testOnTodoChanged_MarkedDoneCancelsTransition() throws InterruptedException {
+        //Arrange
+        when(todoService.getNotDoneTodosDueBetween(any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(List.of());
+        pastDueTimer.start();
+        TodoDetails todo = todoDetails(LocalDateTime.now().plus(Duration.ofMillis(100)));
+        //Act
+        pastDueTimer.onTodoChanged(new TodoChangedEvent(TodoChangeType.CREATED, todo));
+        pastDueTimer.onTodoChanged(new TodoChangedEvent(TodoChangeType.MARKED_DONE, todo));
+        Thread.sleep(300);
+        //Assert
+        assertEquals(0, pastDueTimer.scheduledCount());
+        verify(todoService, never()).markTodosAsPastDue(anyList());
+    }
+
+    @Test
+    void testOnTodoChanged_TodoBeyondHorizonIsNotHeldInMemory() {
+        //Arrange
+        TodoDetails todo = todoDetails(LocalDateTime.now().plusDays(1));
+        //Act
+        pastDueTimer.onTodoChanged(new TodoChangedEvent(TodoChangeType.CREATED, todo));
+        //Assert
+        assertEquals(0, pastDueTimer.scheduledCount());
+    }
+
+    private TodoDetails todoDetails(LocalDateTime dueDate) {
+        return new TodoDetails(UUID.randomUUID(), "Test Description", TodoStatus.NOT_DONE.toString(),
+                LocalDateTime.now(), dueDate, null, 0L);
+    }
+}
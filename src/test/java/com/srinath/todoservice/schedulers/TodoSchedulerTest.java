@@ -0,0 +1,125 @@
+package com.srinath.todoservice.schedulers;
+
+import com.srinath.todoservice.dtos.PastDueSweepResult;
+import com.srinath.todoservice.dtos.TodoDue;
+import com.srinath.todoservice.dtos.TodoIdRange;
+import com.srinath.todoservice.events.TodosPastDueEvent;
+import com.srinath.todoservice.services.SweepLeaseService;
+import com.srinath.todoservice.services.TodoService;
+import com.srinath.todoservice.services.impl.PastDueStalenessRecorder;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TodoSchedulerTest {
+
+    @Mock
+    private TodoService todoService;
+
+    @Mock
+    private SweepLeaseService sweepLeaseService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TodoScheduler todoScheduler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        todoScheduler = new TodoScheduler(todoService, Optional.empty(), meterRegistry);
+    }
+
+    @Test
+    void testUpdatePastDueTodos_RecordsScannedAndUpdatedTodos() {
+        //Arrange
+        when(todoService.updatePastDueTodos()).thenReturn(new PastDueSweepResult(5, 4));
+        //Act
+        todoScheduler.updatePastDueTodos();
+        //Assert
+        DistributionSummary scanned = meterRegistry.get("todo.sweep.scanned").summary();
+        DistributionSummary updated = meterRegistry.get("todo.sweep.updated").summary();
+        assertEquals(5, scanned.totalAmount());
+        assertEquals(4, updated.totalAmount());
+        assertEquals(1, meterRegistry.get("todo.sweep").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void testUpdatePastDueTodos_FailedSweepIsTimedAsError() {
+        //Arrange
+        when(todoService.updatePastDueTodos()).thenThrow(new IllegalStateException("Database unavailable"));
+        //Act
+        todoScheduler.updatePastDueTodos();
+        //Assert
+        assertEquals(1, meterRegistry.get("todo.sweep").tag("outcome", "error").timer().count());
+        assertEquals(0, meterRegistry.get("todo.sweep.scanned").summary().count());
+        assertNull(meterRegistry.find("todo.sweep").tag("outcome", "success").timer());
+    }
+
+    @Test
+    void testUpdatePastDueTodos_WithLease_SweepsOnlyLeasedPartitions() {
+        //Arrange
+        todoScheduler = new TodoScheduler(todoService, Optional.of(sweepLeaseService), meterRegistry);
+        TodoIdRange leased = TodoIdRange.partitions(2).get(1);
+        when(sweepLeaseService.sweepLeasedPartitions(any())).thenAnswer(invocation -> {
+            invocation.<Consumer<TodoIdRange>>getArgument(0).accept(leased);
+            return 1;
+        });
+        when(todoService.updatePastDueTodos(leased)).thenReturn(new PastDueSweepResult(3, 3));
+        //Act
+        todoScheduler.updatePastDueTodos();
+        //Assert
+        assertEquals(3, meterRegistry.get("todo.sweep.updated").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("todo.sweep").tag("outcome", "success").timer().count());
+        verify(todoService, never()).updatePastDueTodos();
+    }
+
+    @Test
+    void testUpdatePastDueTodos_WithLeaseHeldElsewhere_IsTimedAsSkipped() {
+        //Arrange
+        todoScheduler = new TodoScheduler(todoService, Optional.of(sweepLeaseService), meterRegistry);
+        when(sweepLeaseService.sweepLeasedPartitions(any())).thenReturn(0);
+        //Act
+        todoScheduler.updatePastDueTodos();
+        //Assert
+        assertEquals(1, meterRegistry.get("todo.sweep").tag("outcome", "skipped").timer().count());
+        assertEquals(0, meterRegistry.get("todo.sweep.scanned").summary().count());
+        verifyNoInteractions(todoService);
+    }
+
+    @Test
+    void testStalenessRecorder_RecordsDelayAfterDueDate() {
+        //Arrange
+        PastDueStalenessRecorder recorder = new PastDueStalenessRecorder(meterRegistry);
+        LocalDateTime markedAt = LocalDateTime.now();
+        TodosPastDueEvent event = new TodosPastDueEvent(List.of(
+                new TodoDue(UUID.randomUUID(), markedAt.minusSeconds(30)),
+                new TodoDue(UUID.randomUUID(), markedAt.minusSeconds(90))), markedAt);
+        //Act
+        recorder.onTodosPastDue(event);
+        //Assert
+        Timer staleness = meterRegistry.get("todo.staleness").timer();
+        assertEquals(2, staleness.count());
+        assertEquals(90, staleness.max(TimeUnit.SECONDS));
+        assertEquals(120, staleness.totalTime(TimeUnit.SECONDS));
+    }
+}
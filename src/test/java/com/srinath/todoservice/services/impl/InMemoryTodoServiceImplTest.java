@@ -0,0 +1,282 @@
+package com.srinath.todoservice.services.impl;
+
+import com.srinath.todoservice.configs.PastDueProperties;
+import com.srinath.todoservice.configs.PastDueSweepProperties;
+import com.srinath.todoservice.dtos.BatchCreateResponse;
+import com.srinath.todoservice.dtos.PastDueSweepResult;
+import com.srinath.todoservice.dtos.TodoChanges;
+import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.dtos.TodoDue;
+import com.srinath.todoservice.dtos.TodoPage;
+import com.srinath.todoservice.dtos.UpdateTodoStatusesResponse;
+import com.srinath.todoservice.enums.PastDueMode;
+import com.srinath.todoservice.enums.TodoStatus;
+import com.srinath.todoservice.events.TodoChangedEvent;
+import com.srinath.todoservice.events.TodosPastDueEvent;
+import com.srinath.todoservice.exceptions.InvalidParameterException;
+import com.srinath.todoservice.exceptions.TodoCannotBeModifiedException;
+import com.srinath.todoservice.exceptions.TodoNotFoundException;
+import com.srinath.todoservice.exceptions.TodoVersionMismatchException;
+import com.srinath.todoservice.repositories.InMemoryTodoStore;
+import com.srinath.todoservice.repositories.InMemoryTodoStore.StoredTodo;
+import com.srinath.todoservice.requests.CreateTodoRequest;
+import com.srinath.todoservice.requests.UpdateTodoRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryTodoServiceImplTest {
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private InMemoryTodoStore todoStore;
+    private InMemoryTodoServiceImpl todoService;
+    private LocalDateTime futureDate;
+
+    @BeforeEach
+    void setUp() {
+        todoStore = new InMemoryTodoStore();
+        todoService = new InMemoryTodoServiceImpl(todoStore, new PastDueSweepProperties(2, Duration.ofSeconds(5), Duration.ofMinutes(1)),
+                new PastDueProperties(PastDueMode.STORED), eventPublisher);
+        futureDate = LocalDateTime.now().plusDays(1);
+    }
+
+    @Test
+    void testCreateTodoItem_StoresTodoAndPublishesEvent() {
+        //Act
+        TodoDetails created = todoService.createTodoItem(new CreateTodoRequest("Test Description", futureDate));
+        //Assert
+        assertEquals("not done", created.status());
+        assertEquals(0L, created.version());
+        assertEquals(created, todoService.getTodoById(created.id()));
+        verify(eventPublisher).publishEvent(any(TodoChangedEvent.class));
+    }
+
+    @Test
+    void testCreateTodoItems_ReportsInvalidItemsAndCreatesTheRest() {
+        //Act
+        BatchCreateResponse response = todoService.createTodoItems(List.of(
+                new CreateTodoRequest("First", futureDate),
+                new CreateTodoRequest(" ", futureDate),
+                new CreateTodoRequest("Third", futureDate)));
+        //Assert
+        assertEquals(2, response.created());
+        assertEquals(1, response.failed());
+        assertNull(response.results().get(1).todo());
+        assertEquals(2, todoService.getAllTodos(true).size());
+    }
+
+    @Test
+    void testGetTodoChanges_ReturnsLatestStateOfTodosChangedSinceToken() {
+        //Arrange
+        todoService.createTodoItem(new CreateTodoRequest("Unchanged", futureDate));
+        TodoDetails changed = todoService.createTodoItem(new CreateTodoRequest("Changed", futureDate));
+        String token = todoService.getTodoChanges(null, 10).token();
+        //Act
+        todoService.markTodoAsDone(changed.id());
+        todoService.updateTodoDescription(changed.id(), new UpdateTodoRequest("Changed twice"));
+        TodoChanges changes = todoService.getTodoChanges(token, 10);
+        //Assert
+        assertEquals(1, changes.items().size());
+        assertEquals("Changed twice", changes.items().get(0).description());
+        assertEquals("done", changes.items().get(0).status());
+        assertFalse(changes.hasMore());
+        assertTrue(todoService.getTodoChanges(changes.token(), 10).items().isEmpty());
+    }
+
+    @Test
+    void testGetTodoById_NotFound() {
+        assertThrows(TodoNotFoundException.class, () -> todoService.getTodoById(UUID.randomUUID()));
+    }
+
+    @Test
+    void testMarkTodoAsDoneAndNotDone_MovesTodoBetweenStatusIndexes() {
+        //Arrange
+        TodoDetails todo = todoService.createTodoItem(new CreateTodoRequest("Test Description", futureDate));
+        //Act
+        TodoDetails done = todoService.markTodoAsDone(todo.id());
+        //Assert
+        assertEquals("done", done.status());
+        assertNotNull(done.completedAt());
+        assertEquals(1L, done.version());
+        assertTrue(todoService.getAllTodos(false).isEmpty());
+        assertEquals(List.of(done), todoService.getAllTodos(true));
+
+        TodoDetails notDone = todoService.markTodoAsNotDone(todo.id());
+        assertNull(notDone.completedAt());
+        assertEquals(2L, notDone.version());
+        assertEquals(List.of(notDone), todoService.getAllTodos(false));
+    }
+
+    @Test
+    void testMarkTodoAsDone_AlreadyDoneKeepsVersionAndPublishesNothing() {
+        //Arrange
+        TodoDetails done = todoService.markTodoAsDone(
+                todoService.createTodoItem(new CreateTodoRequest("Test Description", futureDate)).id());
+        //Act
+        TodoDetails again = todoService.markTodoAsDone(done.id());
+        //Assert
+        assertEquals(done, again);
+        verify(eventPublisher, times(2)).publishEvent(any(TodoChangedEvent.class));
+    }
+
+    @Test
+    void testUpdateTodoDescription_VersionMismatchLeavesTodoUnchanged() {
+        //Arrange
+        TodoDetails todo = todoService.createTodoItem(new CreateTodoRequest("Test Description", futureDate));
+        //Act and Assert
+        assertThrows(TodoVersionMismatchException.class, () ->
+                todoService.updateTodoDescription(todo.id(), new UpdateTodoRequest("Updated"), Set.of(5L)));
+        assertEquals(todo, todoService.getTodoById(todo.id()));
+
+        TodoDetails updated = todoService.updateTodoDescription(todo.id(), new UpdateTodoRequest("Updated"), Set.of(0L));
+        assertEquals("Updated", updated.description());
+        assertEquals(1L, updated.version());
+    }
+
+    @Test
+    void testMarkTodoAsDone_PastDueTodoCannotBeModified() {
+        //Arrange
+        UUID id = UUID.randomUUID();
+        todoStore.insert(new StoredTodo(id, "Overdue", TodoStatus.NOT_DONE, LocalDateTime.now().minusDays(2),
+                LocalDateTime.now().minusDays(1), null, 0L));
+        //Act and Assert
+        assertThrows(TodoCannotBeModifiedException.class, () -> todoService.markTodoAsDone(id));
+    }
+
+    @Test
+    void testUpdateTodoStatuses_ClassifiesEveryId() {
+        //Arrange
+        UUID toChange = todoService.createTodoItem(new CreateTodoRequest("Change", futureDate)).id();
+        UUID alreadyDone = todoService.markTodoAsDone(
+                todoService.createTodoItem(new CreateTodoRequest("Done", futureDate)).id()).id();
+        UUID overdue = UUID.randomUUID();
+        todoStore.insert(new StoredTodo(overdue, "Overdue", TodoStatus.NOT_DONE, LocalDateTime.now().minusDays(2),
+                LocalDateTime.now().minusDays(1), null, 0L));
+        UUID missing = UUID.randomUUID();
+        //Act
+        UpdateTodoStatusesResponse response = todoService.updateTodoStatuses(
+                List.of(toChange, alreadyDone, overdue, missing), TodoStatus.DONE);
+        //Assert
+        assertEquals(List.of(toChange), response.changed());
+        assertEquals(List.of(alreadyDone), response.unchanged());
+        assertEquals(List.of(overdue), response.blocked());
+        assertEquals(List.of(missing), response.notFound());
+        assertEquals("done", todoService.getTodoById(toChange).status());
+    }
+
+    @Test
+    void testUpdateTodoStatuses_InvalidTargetStatus() {
+        assertThrows(InvalidParameterException.class,
+                () -> todoService.updateTodoStatuses(List.of(UUID.randomUUID()), TodoStatus.PAST_DUE));
+    }
+
+    @Test
+    void testGetTodos_PagesInDueDateOrder() {
+        //Arrange
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 5; i > 0; i--) {
+            ids.add(0, todoService.createTodoItem(new CreateTodoRequest("Todo " + i, futureDate.plusHours(i))).id());
+        }
+        //Act
+        TodoPage first = todoService.getTodos(false, 2, null);
+        TodoPage second = todoService.getTodos(false, 2, first.next());
+        TodoPage last = todoService.getTodos(false, 2, second.next());
+        //Assert
+        assertEquals(ids.subList(0, 2), first.items().stream().map(TodoDetails::id).toList());
+        assertEquals(ids.subList(2, 4), second.items().stream().map(TodoDetails::id).toList());
+        assertEquals(ids.subList(4, 5), last.items().stream().map(TodoDetails::id).toList());
+        assertNull(last.next());
+    }
+
+    @Test
+    void testDerivedPastDue_OverdueTodosReadAsPastDueWithoutBeingWritten() {
+        //Arrange
+        todoService = new InMemoryTodoServiceImpl(todoStore, new PastDueSweepProperties(2, Duration.ofSeconds(5), Duration.ofMinutes(1)),
+                new PastDueProperties(PastDueMode.DERIVED), eventPublisher);
+        StoredTodo overdue = todoStore.insert(new StoredTodo(UUID.randomUUID(), "Overdue", TodoStatus.NOT_DONE,
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().minusMinutes(1), null, 0L));
+        TodoDetails open = todoService.createTodoItem(new CreateTodoRequest("Open", futureDate));
+        //Act
+        TodoDetails read = todoService.getTodoById(overdue.id());
+        //Assert
+        assertEquals("past due", read.status());
+        assertEquals(TodoStatus.NOT_DONE, todoStore.findById(overdue.id()).orElseThrow().status());
+        assertEquals(List.of(open), todoService.getAllTodos(false));
+        assertEquals(List.of(open), todoService.getTodos(false, 10, null).items());
+        assertEquals(List.of("past due", "not done"),
+                todoService.getAllTodos(true).stream().map(TodoDetails::status).toList());
+    }
+
+    @Test
+    void testUpdatePastDueTodos_MarksOnlyTodosDueBeforeNow() {
+        //Arrange
+        for (int i = 1; i <= 3; i++) {
+            todoStore.insert(new StoredTodo(UUID.randomUUID(), "Overdue " + i, TodoStatus.NOT_DONE,
+                    LocalDateTime.now().minusDays(2), LocalDateTime.now().minusHours(i), null, 0L));
+        }
+        TodoDetails future = todoService.createTodoItem(new CreateTodoRequest("Future", futureDate));
+        //Act
+        PastDueSweepResult result = todoService.updatePastDueTodos();
+        //Assert
+        assertEquals(new PastDueSweepResult(3, 3), result);
+        assertEquals(List.of(future), todoService.getAllTodos(false));
+        assertEquals(3, todoService.getAllTodos(true).stream().filter(t -> t.status().equals("past due")).count());
+        verify(eventPublisher, times(2)).publishEvent(any(TodosPastDueEvent.class));
+        assertEquals(new PastDueSweepResult(0, 0), todoService.updatePastDueTodos());
+    }
+
+    @Test
+    void testMarkTodosAsPastDue_SkipsTodosCompletedInTheMeantime() {
+        //Arrange
+        UUID id = UUID.randomUUID();
+        LocalDateTime dueDate = LocalDateTime.now().minusMinutes(1);
+        todoStore.insert(new StoredTodo(id, "Done late", TodoStatus.DONE, LocalDateTime.now().minusDays(1),
+                dueDate, LocalDateTime.now(), 0L));
+        //Act
+        int updated = todoService.markTodosAsPastDue(List.of(new TodoDue(id, dueDate)));
+        //Assert
+        assertEquals(0, updated);
+        verify(eventPublisher, never()).publishEvent(any(TodosPastDueEvent.class));
+    }
+
+    @Test
+    void testConcurrentToggles_KeepIndexesConsistent() {
+        //Arrange
+        TodoDetails todo = todoService.createTodoItem(new CreateTodoRequest("Contended", futureDate));
+        //Act
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 2000; i++) {
+                boolean done = i % 2 == 0;
+                executor.submit(() -> done ? todoService.markTodoAsDone(todo.id())
+                        : todoService.markTodoAsNotDone(todo.id()));
+            }
+        }
+        //Assert
+        TodoDetails current = todoService.getTodoById(todo.id());
+        List<StoredTodo> indexed = new ArrayList<>(todoStore.findByStatus(TodoStatus.DONE, null, null, 10));
+        indexed.addAll(todoStore.findByStatus(TodoStatus.NOT_DONE, null, null, 10));
+        assertEquals(List.of(current), indexed.stream().map(StoredTodo::toDetails).toList());
+        assertEquals(List.of(current), todoService.getAllTodos(true));
+    }
+}
@@ -0,0 +1,142 @@
+package com.srinath.todoservice.services.impl;
+
+import com.srinath.todoservice.configs.PastDueSweepProperties;
+import com.srinath.todoservice.configs.SweepLeaseProperties;
+import com.srinath.todoservice.dtos.TodoDue;
+import com.srinath.todoservice.dtos.TodoIdRange;
+import com.srinath.todoservice.entities.SweepLease;
+import com.srinath.todoservice.entities.Todo;
+import com.srinath.todoservice.enums.TodoStatus;
+import com.srinath.todoservice.repositories.SweepLeaseRepository;
+import com.srinath.todoservice.repositories.TodoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the lease against H2, with each service instance standing in for a separate node.
+ */
+@DataJpaTest
+class SweepLeaseServiceImplTest {
+
+    private static final PastDueSweepProperties SWEEP_PROPERTIES =
+            new PastDueSweepProperties(500, Duration.ofSeconds(5), Duration.ofMinutes(10));
+
+    @Autowired
+    private SweepLeaseRepository sweepLeaseRepository;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void testSinglePartition_IsSweptByOneNodePerInterval() {
+        SweepLeaseServiceImpl first = node(1);
+        SweepLeaseServiceImpl second = node(1);
+        List<TodoIdRange> swept = new ArrayList<>();
+
+        assertEquals(1, first.sweepLeasedPartitions(swept::add));
+        assertEquals(0, second.sweepLeasedPartitions(swept::add));
+        assertEquals(0, first.sweepLeasedPartitions(swept::add));
+
+        assertEquals(List.of(TodoIdRange.ALL), swept);
+    }
+
+    @Test
+    void testPartitionSweptMoreThanHalfAnIntervalAgo_CanBeSweptByAnyNode() {
+        SweepLeaseServiceImpl first = node(1);
+        SweepLeaseServiceImpl second = node(1);
+        first.sweepLeasedPartitions(range -> { });
+        backdateSweptAt(Duration.ofMinutes(6));
+
+        assertEquals(1, second.sweepLeasedPartitions(range -> { }));
+    }
+
+    @Test
+    void testLeaseHeldByAnotherNode_IsSkippedUntilItExpires() {
+        SweepLeaseServiceImpl second = node(1);
+        LocalDateTime now = LocalDateTime.now();
+        sweepLeaseRepository.saveAndFlush(new SweepLease("past-due-sweep-0-of-1", "crashed-node",
+                now.plusSeconds(30), null));
+
+        assertEquals(0, second.sweepLeasedPartitions(range -> { }));
+
+        SweepLease lease = findLease();
+        lease.setLockedUntil(now.minusSeconds(1));
+        sweepLeaseRepository.saveAndFlush(lease);
+
+        assertEquals(1, second.sweepLeasedPartitions(range -> { }));
+    }
+
+    @Test
+    void testFailedSweep_ReleasesLeaseWithoutMarkingItSwept() {
+        SweepLeaseServiceImpl first = node(1);
+        SweepLeaseServiceImpl second = node(1);
+
+        assertThrows(IllegalStateException.class, () -> first.sweepLeasedPartitions(range -> {
+            throw new IllegalStateException("Database unavailable");
+        }));
+
+        SweepLease lease = findLease();
+        assertNull(lease.getSweptAt());
+        assertEquals(1, second.sweepLeasedPartitions(range -> { }));
+    }
+
+    @Test
+    void testPartitions_AreSweptOnceEachAndCoverEveryTodo() {
+        LocalDateTime now = LocalDateTime.now();
+        todoRepository.saveAllAndFlush(IntStream.range(0, 200).mapToObj(i -> Todo.builder()
+                .description("Todo " + i)
+                .status(TodoStatus.NOT_DONE)
+                .createdAt(now.minusDays(1))
+                .dueDate(now.minusMinutes(i + 1))
+                .build()).toList());
+        SweepLeaseServiceImpl first = node(4);
+        SweepLeaseServiceImpl second = node(4);
+        List<TodoDue> found = new ArrayList<>();
+        Set<TodoIdRange> swept = new HashSet<>();
+
+        int sweptByFirst = first.sweepLeasedPartitions(range -> {
+            assertTrue(swept.add(range));
+            found.addAll(todoRepository.findDueByStatusAndDueDateBeforeInRange(TodoStatus.NOT_DONE, now,
+                    range.first(), range.last(), Limit.unlimited()));
+        });
+        int sweptBySecond = second.sweepLeasedPartitions(range -> fail("Partition " + range + " swept twice"));
+
+        assertEquals(4, sweptByFirst);
+        assertEquals(0, sweptBySecond);
+        assertEquals(200, found.size());
+        assertEquals(200, found.stream().map(TodoDue::id).distinct().count());
+    }
+
+    private SweepLeaseServiceImpl node(int partitions) {
+        return new SweepLeaseServiceImpl(sweepLeaseRepository,
+                new SweepLeaseProperties(partitions, Duration.ofMinutes(1)), SWEEP_PROPERTIES);
+    }
+
+    // The lease updates bypass the persistence context, so re-read the row
+    private SweepLease findLease() {
+        entityManager.clear();
+        return sweepLeaseRepository.findById("past-due-sweep-0-of-1").orElseThrow();
+    }
+
+    private void backdateSweptAt(Duration age) {
+        SweepLease lease = findLease();
+        lease.setSweptAt(lease.getSweptAt().minus(age));
+        sweepLeaseRepository.saveAndFlush(lease);
+    }
+}
@@ -0,0 +1,65 @@
+package com.srinath.todoservice.services.impl;
+
+import com.srinath.todoservice.configs.CacheConfig;
+import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.enums.TodoChangeType;
+import com.srinath.todoservice.enums.TodoStatus;
+import com.srinath.todoservice.events.TodoChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TodoCacheSynchronizerTest {
+
+    private final UUID id = UUID.randomUUID();
+    private Cache cache;
+    private TodoCacheSynchronizer synchronizer;
+
+    @BeforeEach
+    void setUp() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(CacheConfig.TODOS_CACHE);
+        cache = cacheManager.getCache(CacheConfig.TODOS_CACHE);
+        synchronizer = new TodoCacheSynchronizer(cacheManager);
+    }
+
+    @Test
+    void testOnTodoChanged_LateEventDoesNotOverwriteNewerEntry() {
+        //Arrange
+        cache.put(id, todo("Read", 0));
+        synchronizer.onTodoChanged(new TodoChangedEvent(TodoChangeType.DESCRIPTION_UPDATED, todo("Second", 2)));
+        //Act
+        synchronizer.onTodoChanged(new TodoChangedEvent(TodoChangeType.DESCRIPTION_UPDATED, todo("First", 1)));
+        //Assert
+        assertEquals(todo("Second", 2), cache.get(id, TodoDetails.class));
+    }
+
+    @Test
+    void testOnTodoChanged_ReplacesCachedMiss() {
+        //Arrange
+        cache.put(id, null);
+        //Act
+        synchronizer.onTodoChanged(new TodoChangedEvent(TodoChangeType.CREATED, todo("Created", 0)));
+        //Assert
+        assertEquals(todo("Created", 0), cache.get(id, TodoDetails.class));
+    }
+
+    @Test
+    void testOnTodoChanged_LeavesUncachedTodoToTheNextRead() {
+        //Act
+        synchronizer.onTodoChanged(new TodoChangedEvent(TodoChangeType.DESCRIPTION_UPDATED, todo("Updated", 1)));
+        //Assert
+        assertNull(cache.get(id));
+    }
+
+    private TodoDetails todo(String description, long version) {
+        return new TodoDetails(id, description, TodoStatus.NOT_DONE, LocalDateTime.of(2026, 1, 1, 0, 0),
+                LocalDateTime.of(2027, 1, 1, 0, 0), null, version);
+    }
+}
@@ -0,0 +1,155 @@
+package com.srinath.todoservice.services.impl;
+
+import com.srinath.todoservice.configs.TodoFeedProperties;
+import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.enums.TodoChangeType;
+import com.srinath.todoservice.enums.TodoStatus;
+import com.srinath.todoservice.events.TodoChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TodoFeedServiceImplTest {
+
+    // Holds drains back, standing in for subscribers whose connections are not keeping up
+    private final List<Runnable> pendingDrains = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private TodoFeedServiceImpl feedService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        feedService = new TodoFeedServiceImpl(new TodoFeedProperties(4, 2, Duration.ofMinutes(1),
+                Duration.ofSeconds(15), 1, Duration.ofSeconds(10)), pendingDrains::add, meterRegistry);
+    }
+
+    @Test
+    void testSlowSubscriber_IsDisconnectedWhenItsBufferIsFull() {
+        //Arrange
+        feedService.subscribe(null);
+        //Act
+        publishChanges(3);
+        //Assert
+        assertEquals(0, feedService.subscriberCount());
+        assertEquals(1, meterRegistry.get("todo.feed.dropped").counter().count());
+    }
+
+    @Test
+    void testResumingSubscriber_GetsRoomForReplayedEvents() {
+        //Arrange
+        publishChanges(4);
+        //Act
+        feedService.subscribe(feedService.eventId(0));
+        publishChanges(2);
+        //Assert
+        assertEquals(1, feedService.subscriberCount());
+        assertEquals(0, meterRegistry.get("todo.feed.dropped").counter().count());
+    }
+
+    @Test
+    void testEventIds_FromAnotherEpochAreNotResumable() {
+        //Arrange
+        TodoFeedServiceImpl restarted = new TodoFeedServiceImpl(new TodoFeedProperties(4, 2, Duration.ofMinutes(1),
+                Duration.ofSeconds(15), 1, Duration.ofSeconds(10)), pendingDrains::add, new SimpleMeterRegistry());
+        //Act
+        Long own = restarted.parseEventId(restarted.eventId(1));
+        Long beforeRestart = restarted.parseEventId(feedService.eventId(1));
+        Long unqualified = restarted.parseEventId("1");
+        //Assert
+        assertEquals(1L, own);
+        assertNull(beforeRestart);
+        assertNull(unqualified);
+    }
+
+    @Test
+    void testSubscriberWithinBuffer_StaysConnected() {
+        //Arrange
+        feedService.subscribe(null);
+        //Act
+        publishChanges(2);
+        pendingDrains.forEach(Runnable::run);
+        //Assert
+        assertEquals(1, feedService.subscriberCount());
+        assertEquals(1, meterRegistry.get("todo.feed.subscribers").gauge().value());
+    }
+
+    @Test
+    void testStalledSubscriber_IsDroppedWhileOthersKeepReceiving() throws Exception {
+        //Arrange
+        CountDownLatch unblock = new CountDownLatch(1);
+        CountDownLatch stalled = new CountDownLatch(1);
+        AtomicInteger delivered = new AtomicInteger();
+        AtomicInteger subscribed = new AtomicInteger();
+        ExecutorService senders = Executors.newFixedThreadPool(2);
+        meterRegistry = new SimpleMeterRegistry();
+        feedService = new TodoFeedServiceImpl(new TodoFeedProperties(4, 16, Duration.ofMinutes(1),
+                Duration.ofSeconds(15), 2, Duration.ofMillis(50)), senders, meterRegistry) {
+            @Override
+            SseEmitter newEmitter() {
+                // The first subscriber stops reading, so its first write never returns
+                boolean stalling = subscribed.getAndIncrement() == 0;
+                return new SseEmitter() {
+                    @Override
+                    public void send(SseEventBuilder builder) throws IOException {
+                        if (stalling) {
+                            stalled.countDown();
+                            try {
+                                unblock.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        } else {
+                            delivered.incrementAndGet();
+                        }
+                    }
+                };
+            }
+        };
+        try {
+            feedService.subscribe(null);
+            feedService.subscribe(null);
+            publishChanges(1);
+            assertTrue(stalled.await(5, TimeUnit.SECONDS));
+            //Act
+            Thread.sleep(100);
+            feedService.dropStalledSubscribers();
+            publishChanges(5);
+            //Assert
+            assertEquals(1, feedService.subscriberCount());
+            assertEquals(1, meterRegistry.get("todo.feed.dropped").counter().count());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (delivered.get() < 6 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(6, delivered.get());
+        } finally {
+            unblock.countDown();
+            senders.shutdown();
+        }
+    }
+
+    private void publishChanges(int count) {
+        for (int i = 0; i < count; i++) {
+            TodoDetails todo = new TodoDetails(UUID.randomUUID(), "Todo " + i, TodoStatus.NOT_DONE,
+                    LocalDateTime.now(), LocalDateTime.now().plusDays(1), null, 0L);
+            feedService.onTodoChanged(new TodoChangedEvent(TodoChangeType.CREATED, todo));
+        }
+    }
+}
@@ -1,11 +1,25 @@
 package com.srinath.todoservice.services.impl;
 
+import com.srinath.todoservice.configs.PastDueProperties;
+import com.srinath.todoservice.configs.PastDueSweepProperties;
+import com.srinath.todoservice.dtos.BatchCreateResponse;
+import com.srinath.todoservice.dtos.PastDueSweepResult;
+import com.srinath.todoservice.dtos.TodoCursor;
 import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.dtos.TodoDue;
+import com.srinath.todoservice.dtos.TodoPage;
+import com.srinath.todoservice.dtos.UpdateTodoStatusesResponse;
 import com.srinath.todoservice.entities.Todo;
+import com.srinath.todoservice.enums.PastDueMode;
+import com.srinath.todoservice.enums.TodoChangeType;
 import com.srinath.todoservice.enums.TodoStatus;
+import com.srinath.todoservice.events.TodoChangedEvent;
+import com.srinath.todoservice.events.TodosPastDueEvent;
 import com.srinath.todoservice.exceptions.InvalidParameterException;
 import com.srinath.todoservice.exceptions.TodoCannotBeModifiedException;
 import com.srinath.todoservice.exceptions.TodoNotFoundException;
+import com.srinath.todoservice.exceptions.TodoVersionMismatchException;
+import com.srinath.todoservice.repositories.ArchivedTodoRepository;
 import com.srinath.todoservice.repositories.TodoRepository;
 import com.srinath.todoservice.requests.CreateTodoRequest;
 import com.srinath.todoservice.requests.UpdateTodoRequest;
@@ -14,13 +28,21 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +51,21 @@ public class TodoServiceImplTest {
     @Mock
     private TodoRepository todoRepository;
 
+    @Mock
+    private ArchivedTodoRepository archivedTodoRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ChangeSeqWatermark changeSeqWatermark;
+
+    @Spy
+    private PastDueSweepProperties sweepProperties = new PastDueSweepProperties(2, Duration.ofSeconds(5), Duration.ofMinutes(1));
+
+    @Spy
+    private PastDueProperties pastDueProperties = new PastDueProperties(PastDueMode.STORED);
+
     @InjectMocks
     private TodoServiceImpl todoService;
 
@@ -48,6 +85,7 @@ public class TodoServiceImplTest {
                 .status(TodoStatus.NOT_DONE)
                 .createdAt(now)
                 .dueDate(futureDate)
+                .version(0L)
                 .build();
 
         createRequest = new CreateTodoRequest("Test Description", futureDate);
@@ -68,6 +106,7 @@ public class TodoServiceImplTest {
         assertEquals(todo.getDescription(), response.description());
         assertEquals(todo.getStatus().toString(), response.status());
         verify(todoRepository).save(any(Todo.class));
+        verify(eventPublisher).publishEvent(new TodoChangedEvent(TodoChangeType.CREATED, response));
     }
 
     @Test
@@ -94,6 +133,32 @@ public class TodoServiceImplTest {
         });
     }
 
+    @Test
+    void testCreateTodoItems_SavesValidItemsInOneCall() {
+        //Arrange
+        CreateTodoRequest invalidRequest = new CreateTodoRequest("Valid description", now.minusDays(1));
+        when(todoRepository.saveAll(anyList())).thenReturn(List.of(todo));
+
+        //Act
+        BatchCreateResponse response = todoService.createTodoItems(List.of(invalidRequest, createRequest));
+
+        //Assert
+        assertEquals(1, response.created());
+        assertEquals(1, response.failed());
+        assertEquals("1002", response.results().get(0).statusCode());
+        assertEquals(todo.getId(), response.results().get(1).todo().id());
+        verify(todoRepository).saveAll(argThat(todos -> ((List<Todo>) todos).size() == 1));
+        verify(eventPublisher).publishEvent(any(TodoChangedEvent.class));
+    }
+
+    @Test
+    void testCreateTodoItems_shouldThrowException_whenBatchIsTooLarge() {
+        List<CreateTodoRequest> requests = Collections.nCopies(TodoRules.MAX_BATCH_SIZE + 1, createRequest);
+
+        assertThrows(InvalidParameterException.class, () -> todoService.createTodoItems(requests));
+        verifyNoInteractions(todoRepository);
+    }
+
     @Test
     void testUpdateTodoDescription_Success() {
 
@@ -123,6 +188,18 @@ public class TodoServiceImplTest {
         verify(todoRepository, never()).save(any(Todo.class));
     }
 
+    @Test
+    void testUpdateTodoDescription_StaleVersion() {
+        //Arrange
+        todo.setVersion(3L);
+        when(todoRepository.findById(any(UUID.class))).thenReturn(Optional.of(todo));
+
+        //Act and Assert
+        assertThrows(TodoVersionMismatchException.class,
+                () -> todoService.updateTodoDescription(todo.getId(), updateTodoRequest, Set.of(2L)));
+        verify(todoRepository, never()).save(any(Todo.class));
+    }
+
     @Test
     void testUpdateTodoDescription_TodoNotFound() {
         //Arrange
@@ -149,6 +226,19 @@ public class TodoServiceImplTest {
         verify(todoRepository).save(todo);
     }
 
+    @Test
+    void testMarkTodoAsDone_AlreadyDone_doesNotSaveOrPublish() {
+        //Arrange
+        todo.setStatus(TodoStatus.DONE);
+        when(todoRepository.findById(any(UUID.class))).thenReturn(Optional.of(todo));
+        //Act
+        TodoDetails response = todoService.markTodoAsDone(todo.getId());
+        //Assert
+        assertEquals(TodoStatus.DONE.toString(), response.status());
+        verify(todoRepository, never()).save(any(Todo.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
     @Test
     void testMarkTodoAsDone_CannotBeModified() {
         //Arange
@@ -188,92 +278,319 @@ public class TodoServiceImplTest {
         verify(todoRepository, never()).save(any(Todo.class));
     }
 
+    @Test
+    void testUpdateTodoStatuses_UpdatesEligibleTodosWithOneStatement() {
+        //Arrange
+        Todo pastDueTodo = Todo.builder()
+                .id(UUID.randomUUID())
+                .status(TodoStatus.PAST_DUE)
+                .dueDate(now.minusDays(1))
+                .build();
+        UUID missingId = UUID.randomUUID();
+        when(todoRepository.findAllById(anyCollection())).thenReturn(List.of(todo, pastDueTodo));
+        when(todoRepository.updateStatusOfTodosNotDue(eq(List.of(todo.getId())), eq(TodoStatus.NOT_DONE),
+                eq(TodoStatus.DONE), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(1);
+        when(todoRepository.findDetailsByIdIn(List.of(todo.getId())))
+                .thenReturn(List.of(done(todo, "Test Description")));
+        //Act
+        UpdateTodoStatusesResponse response = todoService.updateTodoStatuses(
+                List.of(todo.getId(), pastDueTodo.getId(), missingId), TodoStatus.DONE);
+        //Assert
+        assertEquals(List.of(todo.getId()), response.changed());
+        assertEquals(List.of(pastDueTodo.getId()), response.blocked());
+        assertEquals(List.of(missingId), response.notFound());
+        assertTrue(response.unchanged().isEmpty());
+        verify(todoRepository, never()).save(any(Todo.class));
+        verify(eventPublisher).publishEvent(any(TodoChangedEvent.class));
+    }
+
+    @Test
+    void testUpdateTodoStatuses_ConcurrentChangeIsReportedFromFreshRead() {
+        //Arrange
+        Todo concurrentlyPastDue = Todo.builder()
+                .id(todo.getId())
+                .status(TodoStatus.PAST_DUE)
+                .dueDate(now.minusMinutes(1))
+                .build();
+        when(todoRepository.findAllById(anyCollection())).thenReturn(List.of(todo));
+        when(todoRepository.updateStatusOfTodosNotDue(anyCollection(), any(TodoStatus.class), any(TodoStatus.class),
+                any(), any(LocalDateTime.class))).thenReturn(0);
+        when(todoRepository.findDetailsByIdIn(List.of(todo.getId())))
+                .thenReturn(List.of(TodoDetails.fromEntity(concurrentlyPastDue)));
+        //Act
+        UpdateTodoStatusesResponse response = todoService.updateTodoStatuses(List.of(todo.getId()),
+                TodoStatus.DONE);
+        //Assert
+        assertTrue(response.changed().isEmpty());
+        assertEquals(List.of(todo.getId()), response.blocked());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testUpdateTodoStatuses_PublishesValuesReadAfterTheUpdate() {
+        //Arrange
+        TodoDetails reread = done(todo, "Edited by someone else");
+        when(todoRepository.findAllById(anyCollection())).thenReturn(List.of(todo));
+        when(todoRepository.updateStatusOfTodosNotDue(anyCollection(), any(TodoStatus.class), any(TodoStatus.class),
+                any(), any(LocalDateTime.class))).thenReturn(1);
+        when(todoRepository.findDetailsByIdIn(List.of(todo.getId()))).thenReturn(List.of(reread));
+        //Act
+        todoService.updateTodoStatuses(List.of(todo.getId()), TodoStatus.DONE);
+        //Assert
+        verify(eventPublisher).publishEvent(new TodoChangedEvent(TodoChangeType.MARKED_DONE, reread));
+    }
+
+    @Test
+    void testUpdateTodoStatuses_PublishesVersionOfTheStoredRow() {
+        //Arrange
+        // Written twice by others between the first read and the update
+        TodoDetails reread = new TodoDetails(todo.getId(), todo.getDescription(), TodoStatus.DONE, todo.getCreatedAt(),
+                todo.getDueDate(), now, todo.getVersion() + 3);
+        when(todoRepository.findAllById(anyCollection())).thenReturn(List.of(todo));
+        when(todoRepository.updateStatusOfTodosNotDue(anyCollection(), any(TodoStatus.class), any(TodoStatus.class),
+                any(), any(LocalDateTime.class))).thenReturn(1);
+        when(todoRepository.findDetailsByIdIn(List.of(todo.getId()))).thenReturn(List.of(reread));
+        //Act
+        todoService.updateTodoStatuses(List.of(todo.getId()), TodoStatus.DONE);
+        //Assert
+        verify(eventPublisher).publishEvent(argThat((TodoChangedEvent event) -> event.todo().version() == 3L));
+    }
+
+    @Test
+    void testUpdateTodoStatuses_shouldThrowException_whenTargetIsPastDue() {
+        assertThrows(InvalidParameterException.class,
+                () -> todoService.updateTodoStatuses(List.of(todo.getId()), TodoStatus.PAST_DUE));
+        verifyNoInteractions(todoRepository);
+    }
+
     @Test
     void testGetAllTodos_IncludeAllFalse() {
         //Arrange
-        List<Todo> todos = Collections.singletonList(todo);
-        when(todoRepository.findAllByStatusOrderByDueDateAsc(TodoStatus.NOT_DONE)).thenReturn(todos);
+        List<TodoDetails> todos = Collections.singletonList(TodoDetails.fromEntity(todo));
+        when(todoRepository.findAllDetailsByStatus(TodoStatus.NOT_DONE)).thenReturn(todos);
         //Act
         List<TodoDetails> response = todoService.getAllTodos(false);
         //Assert
         assertEquals(1, response.size());
         assertEquals(todo.getId(), response.get(0).id());
-        verify(todoRepository).findAllByStatusOrderByDueDateAsc(TodoStatus.NOT_DONE);
+        verify(todoRepository).findAllDetailsByStatus(TodoStatus.NOT_DONE);
     }
 
     @Test
     void testGetAllTodos_IncludeAllTrue() {
         //Arrange
-        List<Todo> todos = Collections.singletonList(todo);
-        when(todoRepository.findAllByOrderByDueDateAsc()).thenReturn(todos);
+        List<TodoDetails> todos = Collections.singletonList(TodoDetails.fromEntity(todo));
+        when(todoRepository.findAllDetails()).thenReturn(todos);
         //Act
         List<TodoDetails> response = todoService.getAllTodos(true);
         //Assert
         assertEquals(1, response.size());
         assertEquals(todo.getId(), response.get(0).id());
-        verify(todoRepository).findAllByOrderByDueDateAsc();
+        verify(todoRepository).findAllDetails();
     }
 
     @Test
     void testGetTodoById_Success() {
         //Arrange
-        when(todoRepository.findById(todo.getId())).thenReturn(Optional.of(todo));
+        when(todoRepository.findDetailsById(todo.getId())).thenReturn(Optional.of(TodoDetails.fromEntity(todo)));
         //Act
         TodoDetails response = todoService.getTodoById(todo.getId());
         //Assert
         assertNotNull(response);
         assertEquals(todo.getId(), response.id());
-        verify(todoRepository).findById(todo.getId());
+        verify(todoRepository).findDetailsById(todo.getId());
+    }
+
+    @Test
+    void testGetTodoById_FallsBackToArchive() {
+        //Arrange
+        when(todoRepository.findDetailsById(todo.getId())).thenReturn(Optional.empty());
+        when(archivedTodoRepository.findDetailsById(todo.getId())).thenReturn(Optional.of(TodoDetails.fromEntity(todo)));
+        //Act
+        TodoDetails response = todoService.getTodoById(todo.getId());
+        //Assert
+        assertEquals(todo.getId(), response.id());
+    }
+
+    @Test
+    void testMarkTodoAsDone_ArchivedTodoCannotBeModified() {
+        //Arrange
+        when(todoRepository.findById(todo.getId())).thenReturn(Optional.empty());
+        when(archivedTodoRepository.existsById(todo.getId())).thenReturn(true);
+        //Act and Assert
+        assertThrows(TodoCannotBeModifiedException.class, () -> todoService.markTodoAsDone(todo.getId()));
+        verify(todoRepository, never()).save(any(Todo.class));
     }
 
     @Test
     void testGetTodoById_NotFound() {
         //Arrange
-        when(todoRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
+        when(todoRepository.findDetailsById(any(UUID.class))).thenReturn(Optional.empty());
         //Act and Assert
         assertThrows(TodoNotFoundException.class, () -> todoService.getTodoById(UUID.randomUUID()));
-        verify(todoRepository).findById(any(UUID.class));
+        verify(todoRepository).findDetailsById(any(UUID.class));
     }
 
     @Test
     void testUpdatePastDueTodos_WithTodosToUpdate() {
 
-        todo.setDueDate(LocalDateTime.now().minusDays(1));
-        List<Todo> pastDueTodos = Collections.singletonList(todo);
-        Todo updatedPastDueToDo=Todo.builder()
+        List<TodoDue> fullChunk = List.of(new TodoDue(UUID.randomUUID(), now.minusDays(2)),
+                new TodoDue(UUID.randomUUID(), now.minusDays(1)));
+        List<TodoDue> lastChunk = List.of(new TodoDue(todo.getId(), now.minusHours(1)));
+        when(todoRepository.findDueByStatusAndDueDateBeforeInRange(eq(TodoStatus.NOT_DONE), any(LocalDateTime.class),
+                any(UUID.class), any(UUID.class), eq(Limit.of(2)))).thenReturn(fullChunk, lastChunk);
+        when(todoRepository.updateStatusOfDueTodos(anyList(), eq(TodoStatus.NOT_DONE), eq(TodoStatus.PAST_DUE),
+                any(LocalDateTime.class))).thenReturn(2, 1);
+
+        PastDueSweepResult result = todoService.updatePastDueTodos();
+
+        assertEquals(new PastDueSweepResult(3, 3), result);
+        verify(todoRepository).updateStatusOfDueTodos(eq(List.of(todo.getId())), eq(TodoStatus.NOT_DONE),
+                eq(TodoStatus.PAST_DUE), any(LocalDateTime.class));
+        verify(eventPublisher, times(2)).publishEvent(any(TodosPastDueEvent.class));
+        verify(todoRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testMarkTodosAsPastDue_PublishesOnlyTodosThatWereFlipped() {
+        //Arrange
+        TodoDue flipped = new TodoDue(todo.getId(), now.minusMinutes(2));
+        TodoDue completedFirst = new TodoDue(UUID.randomUUID(), now.minusMinutes(1));
+        when(todoRepository.updateStatusOfDueTodos(anyList(), eq(TodoStatus.NOT_DONE), eq(TodoStatus.PAST_DUE),
+                any(LocalDateTime.class))).thenReturn(1);
+        when(todoRepository.findDueByIdInAndStatus(List.of(flipped.id(), completedFirst.id()), TodoStatus.PAST_DUE))
+                .thenReturn(List.of(flipped));
+        //Act
+        int updated = todoService.markTodosAsPastDue(List.of(flipped, completedFirst));
+        //Assert
+        assertEquals(1, updated);
+        verify(eventPublisher).publishEvent(argThat((Object event) ->
+                event instanceof TodosPastDueEvent pastDue && pastDue.todos().equals(List.of(flipped))));
+    }
+
+    @Test
+    void testUpdatePastDueTodos_WithNoTodosToUpdateShouldRunWithoutError() {
+
+        when(todoRepository.findDueByStatusAndDueDateBeforeInRange(eq(TodoStatus.NOT_DONE), any(LocalDateTime.class),
+                any(UUID.class), any(UUID.class), any(Limit.class))).thenReturn(List.of());
+
+        PastDueSweepResult result = todoService.updatePastDueTodos();
+
+        assertEquals(new PastDueSweepResult(0, 0), result);
+        verify(todoRepository, never()).updateStatusOfDueTodos(anyList(), any(TodoStatus.class),
+                any(TodoStatus.class), any(LocalDateTime.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testUpdatePastDueTodos_StopsWhenTimeBudgetIsSpent() {
+
+        sweepProperties = new PastDueSweepProperties(1, Duration.ZERO, Duration.ofMinutes(1));
+        todoService = new TodoServiceImpl(todoRepository, archivedTodoRepository, sweepProperties, pastDueProperties,
+                eventPublisher, changeSeqWatermark);
+        when(todoRepository.findDueByStatusAndDueDateBeforeInRange(eq(TodoStatus.NOT_DONE), any(LocalDateTime.class),
+                any(UUID.class), any(UUID.class), eq(Limit.of(1)))).thenReturn(List.of(new TodoDue(todo.getId(), now.minusDays(1))));
+        when(todoRepository.updateStatusOfDueTodos(anyList(), eq(TodoStatus.NOT_DONE), eq(TodoStatus.PAST_DUE),
+                any(LocalDateTime.class))).thenReturn(1);
+
+        PastDueSweepResult result = todoService.updatePastDueTodos();
+
+        assertEquals(new PastDueSweepResult(1, 1), result);
+        verify(todoRepository, times(1)).findDueByStatusAndDueDateBeforeInRange(any(TodoStatus.class),
+                any(LocalDateTime.class), any(UUID.class), any(UUID.class), any(Limit.class));
+    }
+
+    @Test
+    void testGetTodos_FirstPageWithMoreItems_returnsNextCursor() {
+        //Arrange
+        Todo laterTodo = Todo.builder()
                 .id(UUID.randomUUID())
-                .description("Test Description")
-                .status(TodoStatus.PAST_DUE)
+                .description("Later Description")
+                .status(TodoStatus.NOT_DONE)
                 .createdAt(now)
-                .dueDate(LocalDateTime.now().minusDays(1))
+                .dueDate(futureDate.plusDays(1))
                 .build();
-        List<Todo> updatedPastDueTodos = Collections.singletonList(updatedPastDueToDo);
-        when(todoRepository.findAllByDueDateBeforeAndStatusNot(any(LocalDateTime.class),
-                any(TodoStatus.class))).thenReturn(pastDueTodos);
-        when(todoRepository.saveAll(anyList())).thenReturn(updatedPastDueTodos);
-
-        todoService.updatePastDueTodos();
-
-        assertEquals(TodoStatus.PAST_DUE, updatedPastDueToDo.getStatus());
-        verify(todoRepository).findAllByDueDateBeforeAndStatusNot(any(LocalDateTime.class),
-                any(TodoStatus.class));
-        verify(todoRepository).saveAll(pastDueTodos);
+        when(todoRepository.findDetailsByStatus(TodoStatus.NOT_DONE, Limit.of(2)))
+                .thenReturn(List.of(TodoDetails.fromEntity(todo), TodoDetails.fromEntity(laterTodo)));
+        //Act
+        TodoPage response = todoService.getTodos(false, 1, null);
+        //Assert
+        assertEquals(1, response.items().size());
+        assertEquals(todo.getId(), response.items().get(0).id());
+        assertEquals(new TodoCursor(todo.getDueDate(), todo.getId()), TodoCursor.decode(response.next()));
     }
 
     @Test
-    void testUpdatePastDueTodos_WithNoTodosToUpdateShouldRunWithoutError() {
+    void testGetTodos_WithCursor_seeksPastCursor() {
+        //Arrange
+        TodoCursor cursor = new TodoCursor(now, UUID.randomUUID());
+        when(todoRepository.findDetailsAfter(cursor.dueDate(), cursor.id(), Limit.of(11)))
+                .thenReturn(List.of(TodoDetails.fromEntity(todo)));
+        //Act
+        TodoPage response = todoService.getTodos(true, 10, cursor.encode());
+        //Assert
+        assertEquals(1, response.items().size());
+        assertNull(response.next());
+        verify(todoRepository).findDetailsAfter(cursor.dueDate(), cursor.id(), Limit.of(11));
+    }
 
-        List<Todo> pastDueTodos = List.of();
+    @Test
+    void testGetTodos_DerivedPastDue_CursorFromBeforeNowStartsFromNow() {
+        //Arrange
+        todoService = new TodoServiceImpl(todoRepository, archivedTodoRepository, sweepProperties, new PastDueProperties(PastDueMode.DERIVED),
+                eventPublisher, changeSeqWatermark);
+        TodoCursor staleCursor = new TodoCursor(now.minusHours(1), UUID.randomUUID());
+        when(todoRepository.findDetailsByStatusDueFrom(eq(TodoStatus.NOT_DONE), any(LocalDateTime.class), eq(Limit.of(11))))
+                .thenReturn(List.of(TodoDetails.fromEntity(todo)));
+        //Act
+        TodoPage response = todoService.getTodos(false, 10, staleCursor.encode());
+        //Assert
+        assertEquals(1, response.items().size());
+        verify(todoRepository).findDetailsByStatusDueFrom(eq(TodoStatus.NOT_DONE),
+                argThat(dueFrom -> !dueFrom.isBefore(now)), eq(Limit.of(11)));
+        verify(todoRepository, never()).findDetailsByStatusAfter(any(), any(), any(), any());
+    }
 
-        when(todoRepository.findAllByDueDateBeforeAndStatusNot(any(LocalDateTime.class),
-                any(TodoStatus.class))).thenReturn(pastDueTodos);
-        when(todoRepository.saveAll(anyList())).thenReturn(pastDueTodos);
+    @Test
+    void testGetAllTodos_DerivedPastDue_ShowsOverdueNotDoneTodosAsPastDue() {
+        //Arrange
+        todoService = new TodoServiceImpl(todoRepository, archivedTodoRepository, sweepProperties, new PastDueProperties(PastDueMode.DERIVED),
+                eventPublisher, changeSeqWatermark);
+        todo.setDueDate(now.minusMinutes(1));
+        Todo doneTodo = Todo.builder().id(UUID.randomUUID()).description("Done").status(TodoStatus.DONE)
+                .createdAt(now).dueDate(now.minusMinutes(1)).version(1L).build();
+        when(todoRepository.findAllDetails())
+                .thenReturn(List.of(TodoDetails.fromEntity(todo), TodoDetails.fromEntity(doneTodo)));
+        //Act
+        List<TodoDetails> todos = todoService.getAllTodos(true);
+        //Assert
+        assertEquals(List.of("past due", "done"), todos.stream().map(TodoDetails::status).toList());
+        verifyNoInteractions(eventPublisher);
+    }
 
-        todoService.updatePastDueTodos();
+    @Test
+    void testGetTodos_shouldThrowException_whenLimitIsOutOfRange() {
+        assertThrows(InvalidParameterException.class, () -> todoService.getTodos(false, 0, null));
+        assertThrows(InvalidParameterException.class,
+                () -> todoService.getTodos(false, TodoRules.MAX_PAGE_LIMIT + 1, null));
+        verifyNoInteractions(todoRepository);
+    }
 
-        verify(todoRepository).findAllByDueDateBeforeAndStatusNot(any(LocalDateTime.class),
-                any(TodoStatus.class));
-        verify(todoRepository).saveAll(pastDueTodos);
+    @Test
+    void testExportTodos_passesEachTodoToConsumer() {
+        //Arrange
+        when(todoRepository.streamAllDetails()).thenReturn(Stream.of(TodoDetails.fromEntity(todo)));
+        List<TodoDetails> exported = new ArrayList<>();
+        //Act
+        todoService.exportTodos(exported::add);
+        //Assert
+        assertEquals(1, exported.size());
+        assertEquals(todo.getId(), exported.get(0).id());
     }
 
+    // The todo as a read after marking it done would return it
+    private static TodoDetails done(Todo todo, String description) {
+        return new TodoDetails(todo.getId(), description, TodoStatus.DONE, todo.getCreatedAt(), todo.getDueDate(),
+                LocalDateTime.now(), todo.getVersion() + 1);
+    }
 }
@@ -0,0 +1,159 @@
+package com.srinath.todoservice.services.impl;
+
+import com.srinath.todoservice.configs.PastDueProperties;
+import com.srinath.todoservice.configs.TodoStatsProperties;
+import com.srinath.todoservice.dtos.TodoDetails;
+import com.srinath.todoservice.dtos.TodoDue;
+import com.srinath.todoservice.dtos.TodoStats;
+import com.srinath.todoservice.enums.PastDueMode;
+import com.srinath.todoservice.enums.TodoChangeType;
+import com.srinath.todoservice.enums.TodoStatus;
+import com.srinath.todoservice.events.TodoChangedEvent;
+import com.srinath.todoservice.events.TodosPastDueEvent;
+import com.srinath.todoservice.services.TodoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TodoStatsServiceImplTest {
+
+    @Mock
+    private TodoService todoService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TodoStatsServiceImpl statsService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        statsService = statsService(PastDueMode.STORED);
+    }
+
+    @Test
+    void testChanges_MoveTodosBetweenCounters() {
+        //Arrange
+        TodoDetails dueSoon = todo(LocalDateTime.now().plusHours(2));
+        TodoDetails dueLater = todo(LocalDateTime.now().plusDays(3));
+        TodoDetails dueNow = todo(LocalDateTime.now().plusMinutes(2));
+        //Act
+        List.of(dueSoon, dueLater, dueNow).forEach(todo -> change(TodoChangeType.CREATED, todo));
+        change(TodoChangeType.MARKED_DONE, dueLater);
+        change(TodoChangeType.MARKED_DONE, dueSoon);
+        change(TodoChangeType.MARKED_NOT_DONE, dueSoon);
+        change(TodoChangeType.DESCRIPTION_UPDATED, dueSoon);
+        statsService.onTodosPastDue(new TodosPastDueEvent(
+                List.of(new TodoDue(dueNow.id(), dueNow.dueDate())), LocalDateTime.now()));
+        //Assert
+        TodoStats stats = statsService.getStats();
+        assertEquals(3, stats.total());
+        assertEquals(1, stats.notDone());
+        assertEquals(1, stats.done());
+        assertEquals(1, stats.pastDue());
+        assertEquals(1, stats.overdue());
+        assertEquals(1, stats.dueSoon());
+    }
+
+    @Test
+    void testReconcile_CorrectsDriftFromTheStore() {
+        //Arrange
+        LocalDateTime dueSoon = LocalDateTime.now().plusHours(1);
+        change(TodoChangeType.CREATED, todo(dueSoon));
+        change(TodoChangeType.CREATED, todo(dueSoon));
+        when(todoService.countTodosByStatus()).thenReturn(Map.of(TodoStatus.NOT_DONE, 2L, TodoStatus.DONE, 4L));
+        when(todoService.countNotDoneTodosDueBefore(any())).thenReturn(1L);
+        when(todoService.getNotDoneTodosDueBetween(any(), any())).thenReturn(List.of(
+                new TodoDue(UUID.randomUUID(), dueSoon)));
+        statsService.reconcile();
+        //Act
+        statsService.reconcile();
+        //Assert
+        TodoStats stats = statsService.getStats();
+        assertEquals(6, stats.total());
+        assertEquals(4, stats.done());
+        assertEquals(1, stats.overdue());
+        assertEquals(1, stats.dueSoon());
+        assertEquals(0, meterRegistry.get("todo.stats.corrections").counter().count());
+    }
+
+    @Test
+    void testReconcile_CountsCorrectionsAfterTheFirstCheck() {
+        //Arrange
+        when(todoService.countTodosByStatus()).thenReturn(Map.of());
+        statsService.reconcile();
+        change(TodoChangeType.CREATED, todo(LocalDateTime.now().plusDays(2)));
+        change(TodoChangeType.CREATED, todo(LocalDateTime.now().plusHours(1)));
+        //Act
+        statsService.reconcile();
+        //Assert
+        TodoStats stats = statsService.getStats();
+        assertEquals(0, stats.total());
+        assertEquals(0, stats.dueSoon());
+        // Two NOT_DONE todos that are not there, one of them in a checked due minute
+        assertEquals(3, meterRegistry.get("todo.stats.corrections").counter().count());
+    }
+
+    @Test
+    void testDerivedPastDue_ReportsOverdueNotDoneTodosAsPastDue() {
+        //Arrange
+        statsService = statsService(PastDueMode.DERIVED);
+        when(todoService.countTodosByStatus()).thenReturn(Map.of(TodoStatus.NOT_DONE, 3L, TodoStatus.PAST_DUE, 1L));
+        when(todoService.countNotDoneTodosDueBefore(any())).thenReturn(1L);
+        statsService.reconcile();
+        //Act
+        // Stands in for a todo whose due date passed since the check, with nothing written for it
+        change(TodoChangeType.CREATED, todo(LocalDateTime.now().minusMinutes(10)));
+        //Assert
+        TodoStats stats = statsService.getStats();
+        assertEquals(5, stats.total());
+        assertEquals(2, stats.notDone());
+        assertEquals(3, stats.pastDue());
+        assertEquals(3, stats.overdue());
+    }
+
+    @Test
+    void testReconcile_FoldsPastDueMinutesIntoOneOverdueCount() {
+        //Arrange
+        LocalDateTime overdue = LocalDateTime.now().minusMinutes(10);
+        change(TodoChangeType.CREATED, todo(overdue));
+        change(TodoChangeType.CREATED, todo(overdue.minusDays(3)));
+        when(todoService.countTodosByStatus()).thenReturn(Map.of(TodoStatus.NOT_DONE, 2L));
+        when(todoService.countNotDoneTodosDueBefore(any())).thenReturn(2L);
+        //Act
+        statsService.reconcile();
+        statsService.onTodosPastDue(new TodosPastDueEvent(List.of(new TodoDue(UUID.randomUUID(), overdue)),
+                LocalDateTime.now()));
+        //Assert
+        TodoStats stats = statsService.getStats();
+        assertEquals(1, stats.notDone());
+        assertEquals(2, stats.overdue());
+        assertEquals(0, meterRegistry.get("todo.stats.corrections").counter().count());
+    }
+
+    private TodoStatsServiceImpl statsService(PastDueMode mode) {
+        return new TodoStatsServiceImpl(todoService, new TodoStatsProperties(Duration.ofHours(24), Duration.ofMinutes(5)),
+                new PastDueProperties(mode), meterRegistry);
+    }
+
+    private void change(TodoChangeType type, TodoDetails todo) {
+        statsService.onTodoChanged(new TodoChangedEvent(type, todo));
+    }
+
+    private static TodoDetails todo(LocalDateTime dueDate) {
+        return new TodoDetails(UUID.randomUUID(), "Todo", TodoStatus.NOT_DONE, LocalDateTime.now(), dueDate,
+                null, 0L);
+    }
+}